@@ -0,0 +1,96 @@
+package benchmark;
+
+import customer.AppointmentDAO;
+import customer.Booking;
+import customer.BookingResult;
+import customer.Company;
+import customer.Service;
+import customer.ServiceOption;
+import customer.SlotAvailability;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** customer.AppointmentDAO: the customer-side catalog lookups, availability and booking. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentDaoBenchmark {
+
+    private final AppointmentDAO dao = new AppointmentDAO();
+
+    // Every benchmark takes SeededCompany, if only so BenchmarkDatabase is set up before the DAO connects
+    @Benchmark
+    public ObservableList<String> getCompanies(SeededCompany f) {
+        return dao.getCompanies();
+    }
+
+    @Benchmark
+    public ObservableList<ServiceOption> getServicesByCompany(SeededCompany f) {
+        return dao.getServicesByCompany(f.tag);
+    }
+
+    @Benchmark
+    public Service getServiceDetails(SeededCompany f, SeededCompany.Counter c) {
+        return dao.getServiceDetails(f.serviceId(c.next()));
+    }
+
+    @Benchmark
+    public Company getCompanyDetails(SeededCompany f) {
+        return dao.getCompanyDetails(f.tag);
+    }
+
+    @Benchmark
+    public int getCompanyId(SeededCompany f) {
+        return dao.getCompanyId(f.tag);
+    }
+
+    @Benchmark
+    public List<String> getSlots(SeededCompany f, SeededCompany.Counter c) {
+        return dao.getSlots(f.serviceId(c.next()), "Mon");
+    }
+
+    /** The whole booking window, as the booking screen asks for it. */
+    @Benchmark
+    public Map<LocalDate, List<SlotAvailability>> getSlotsByDate(SeededCompany f, SeededCompany.Counter c) {
+        return dao.getSlotsByDate(f.serviceId(c.next()), f.today, f.today.plusDays(f.window));
+    }
+
+    @Benchmark
+    public boolean isSlotAvailable(SeededCompany f, SeededCompany.Counter c) {
+        SeededCompany.Slot slot = f.slot(c.next());
+        return dao.isSlotAvailable(f.serviceIds.get(slot.serviceIndex()), slot.nextDate(f.today), slot.label());
+    }
+
+    /** On the open service, which never fills up, so every call books. */
+    @Benchmark
+    public BookingResult reserveBooking(SeededCompany f, SeededCompany.Counter c) {
+        return dao.reserveBooking(openBooking(f, c.next()));
+    }
+
+    @Benchmark
+    public boolean saveBooking(SeededCompany f, SeededCompany.Counter c) {
+        return dao.saveBooking(openBooking(f, c.next()), f.companyId);
+    }
+
+    private static Booking openBooking(SeededCompany f, int i) {
+        SeededCompany.Slot slot = f.openSlot;
+        return new Booking(slot.slotId(), f.today.plusDays(i % f.window), f.tag, f.openServiceName,
+                slot.label(), SeededCompany.customerName(i), "0771234567", "bench@example.com", "");
+    }
+}
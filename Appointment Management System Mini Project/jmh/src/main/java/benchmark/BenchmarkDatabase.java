@@ -0,0 +1,123 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The database the benchmarks run against: an in-memory H2 database in MySQL mode, private
+ * to the benchmark JVM and built from sql/SERVICE_HUB.sql plus sql/migrations (both packaged
+ * into the benchmark jar). DBHelper is pointed at it through servicehub.* system properties,
+ * which win over db.properties and SERVICE_HUB_* variables, so the server the application is
+ * configured for is never touched. start() must run before anything reads DBConfig.
+ *
+ * H2 rejects a few MySQL-only statements; those are skipped when they are a FULLTEXT index,
+ * a data backfill (UPDATE; the schema starts out empty) or dropping an index H2 still uses
+ * for a foreign key. Any other failure stops provisioning.
+ */
+final class BenchmarkDatabase {
+
+    static final String URL = "jdbc:h2:mem:service_hub;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                            + "NON_KEYWORDS=DAY,ROLE,VALUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+
+    private static final Pattern MIGRATION = Pattern.compile("V\\d+__.+\\.sql");
+    private static final Pattern MYSQL_ONLY = Pattern.compile("(?is)\\s*(CREATE\\s+DATABASE|USE)\\b.*");
+    private static final Pattern SKIPPABLE = Pattern.compile("(?is)\\s*(CREATE\\s+FULLTEXT|UPDATE|DROP\\s+INDEX)\\b.*");
+
+    private static boolean started = false;
+
+    private BenchmarkDatabase() {
+    }
+
+    /** Creates the schema (once per JVM) and routes DBHelper to it. */
+    static synchronized void start() throws IOException, SQLException {
+        if (started) return;
+
+        try (Connection conn = DriverManager.getConnection(URL, USER, "");
+             Statement st = conn.createStatement()) {
+            run(st, "SERVICE_HUB.sql", resource("sql/SERVICE_HUB.sql"));
+            for (Map.Entry<String, String> migration : migrations().entrySet()) {
+                run(st, migration.getKey(), migration.getValue());
+            }
+        }
+
+        // An empty config file: db.properties on the classpath carries mysql.* driver
+        // properties that H2 would be handed too. Everything else keeps its default.
+        Path config = Files.createTempFile("servicehub-benchmark", ".properties");
+        config.toFile().deleteOnExit();
+        System.setProperty("servicehub.db.config", config.toString());
+        System.setProperty("servicehub.db.url", URL);
+        System.setProperty("servicehub.db.user", USER);
+        System.setProperty("servicehub.db.password", "");
+        System.setProperty("servicehub.db.driver", "org.h2.Driver");
+        started = true;
+    }
+
+    /** Runs each ';'-terminated statement of a script; "--" comments are dropped. */
+    private static void run(Statement st, String file, String script) throws SQLException {
+        for (String statement : script.replaceAll("--[^\\n]*", "").split(";")) {
+            String sql = statement.trim();
+            if (sql.isEmpty() || MYSQL_ONLY.matcher(sql).matches()) continue;
+            try {
+                st.execute(sql);
+            } catch (SQLException e) {
+                if (!SKIPPABLE.matcher(sql).matches()) {
+                    throw new SQLException(file + ": " + e.getMessage() + "\n" + sql, e.getSQLState(), e);
+                }
+                System.err.println("H2 skipped (" + file + "): " + sql.lines().findFirst().orElse(""));
+            }
+        }
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = BenchmarkDatabase.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) throw new IOException(name + " is not on the classpath");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // File name to script, in version order (V001.. are zero-padded, so name order is version
+    // order); read from the benchmark jar or, when run from the IDE, target/classes
+    private static SortedMap<String, String> migrations() throws IOException {
+        URL url = BenchmarkDatabase.class.getClassLoader().getResource("sql/migrations");
+        if (url == null) throw new IOException("sql/migrations is not on the classpath");
+        try {
+            URI uri = url.toURI();
+            if (!"jar".equals(uri.getScheme())) return read(Paths.get(uri));
+            try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+                return read(jar.getPath("sql/migrations"));
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static SortedMap<String, String> read(Path dir) throws IOException {
+        SortedMap<String, String> scripts = new TreeMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                String name = p.getFileName().toString();
+                if (MIGRATION.matcher(name).matches()) scripts.put(name, Files.readString(p, StandardCharsets.UTF_8));
+            }
+        }
+        return scripts;
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes JMH's usual command line, and adds the GC profiler when
+ * no profiler is given, so every run reports allocation per call (gc.alloc.rate.norm) next to
+ * throughput and the latency percentiles (SampleTime: p50, p99, ...).
+ *
+ * Every benchmark seeds its own in-memory H2 database (BenchmarkDatabase), never the one in
+ * db.properties. Absolute numbers are H2's, so compare runs with each other, not with MySQL.
+ *
+ * Usage: java -jar jmh/target/benchmarks.jar [JMH options] [benchmark regexp]
+ *   e.g. java -jar jmh/target/benchmarks.jar BookingDao -p bookings=100000 -rf json
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+                || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (cmd.getProfilers().isEmpty()) options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package benchmark;
+
+import company.BookingDAO;
+import company.BookingQuery;
+import customer.Booking;
+import db.DBHelper;
+import db.SlotOccupancy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * company.BookingDAO: the bookings screen's list, pages, export stream and cancel.
+ * The word search (MATCH ... AGAINST) needs MySQL's FULLTEXT index and is not run here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingDaoBenchmark {
+
+    private static final int DEEP_PAGES = 20;
+
+    private final BookingDAO dao = new BookingDAO();
+    private BookingQuery all;
+    private BookingDAO.PageCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void queries(SeededCompany f) throws SQLException {
+        all = BookingQuery.forCompany(f.companyId);
+        for (int p = 0; p < DEEP_PAGES; p++) {
+            BookingDAO.BookingPage page = dao.getBookingsPage(all, deepCursor, SeededCompany.PAGE_SIZE);
+            if (!page.hasMore()) break;
+            deepCursor = page.next();
+        }
+    }
+
+    /** A booking on the open service, made before each cancelBooking call and outside its timing. */
+    @State(Scope.Thread)
+    public static class Cancellable {
+        int bookingId;
+        private int n;
+
+        @Setup(Level.Invocation)
+        public void book(SeededCompany f) throws SQLException {
+            SeededCompany.Slot slot = f.openSlot;
+            LocalDate date = f.today.plusDays(n++ % f.window);
+            String sql = "INSERT INTO bookings (company_id, company_name, service_name, day, slot_time, customer_name, "
+                       + "service_id, slot_id, appointment_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (Connection conn = DBHelper.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, f.companyId);
+                ps.setString(2, f.tag);
+                ps.setString(3, f.openServiceName);
+                ps.setString(4, Booking.dayAbbr(date));
+                ps.setString(5, slot.label());
+                ps.setString(6, SeededCompany.customerName(n));
+                ps.setInt(7, f.openServiceId);
+                ps.setInt(8, slot.slotId());
+                ps.setDate(9, Date.valueOf(date));
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    bookingId = keys.getInt(1);
+                }
+                SlotOccupancy.add(conn, slot.slotId(), date);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<company.Booking> getBookingsByCompanyId(SeededCompany f) {
+        return dao.getBookingsByCompanyId(f.companyId);
+    }
+
+    @Benchmark
+    public BookingDAO.BookingPage getBookingsPageFirst() throws SQLException {
+        return dao.getBookingsPage(all, null, SeededCompany.PAGE_SIZE);
+    }
+
+    /** Page DEEP_PAGES + 1, read from its keyset cursor. */
+    @Benchmark
+    public BookingDAO.BookingPage getBookingsPageDeep() throws SQLException {
+        return dao.getBookingsPage(all, deepCursor, SeededCompany.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookingDAO.BookingPage getBookingsPageServiceAndDay(SeededCompany f, SeededCompany.Counter c) throws SQLException {
+        return dao.getBookingsPage(all.withService(f.serviceId(c.next())).withDay("Mon"), null, SeededCompany.PAGE_SIZE);
+    }
+
+    /** Every booking of the company, as the CSV export reads them. */
+    @Benchmark
+    public int streamBookings(Blackhole bh) throws SQLException {
+        return dao.streamBookings(all, bh::consume);
+    }
+
+    @Benchmark
+    public boolean cancelBooking(SeededCompany f, Cancellable booking) throws SQLException {
+        return dao.cancelBooking(f.companyId, booking.bookingId);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import company.CompanyAuthDAO;
+import company.CompanyProfileDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/** company.CompanyAuthDAO and company.CompanyProfileDAO: sign-up, login and the profile. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyDaoBenchmark {
+
+    private final CompanyProfileDAO profiles = new CompanyProfileDAO();
+
+    /** A company that has signed up but has no profile yet, made before each saveCompanyProfile call. */
+    @State(Scope.Thread)
+    public static class SignedUp {
+        int companyId;
+        String name;
+        private int n;
+
+        @Setup(Level.Invocation)
+        public void signup(SeededCompany f) throws SQLException {
+            name = f.tag + "_p" + Thread.currentThread().getId() + "_" + n++;
+            CompanyAuthDAO.signup(name, name + "@example.com", "bench");
+            companyId = CompanyAuthDAO.login(name, "bench");
+            if (companyId < 0) throw new SQLException("Could not sign up " + name);
+        }
+    }
+
+    @Benchmark
+    public int login(SeededCompany f) {
+        return CompanyAuthDAO.login(f.tag, "bench");
+    }
+
+    @Benchmark
+    public boolean hasProfile(SeededCompany f) {
+        return CompanyAuthDAO.hasProfile(f.companyId);
+    }
+
+    @Benchmark
+    public boolean signup(SeededCompany f, SeededCompany.Counter c) {
+        String name = f.tag + "_s" + Thread.currentThread().getId() + "_" + c.next();
+        return CompanyAuthDAO.signup(name, name + "@example.com", "bench");
+    }
+
+    @Benchmark
+    public boolean saveCompanyProfile(SignedUp company) {
+        return profiles.saveCompanyProfile(SeededCompany.profile(company.companyId, company.name));
+    }
+}
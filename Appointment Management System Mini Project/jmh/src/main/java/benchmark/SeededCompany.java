@@ -0,0 +1,269 @@
+package benchmark;
+
+import company.CompanyAuthDAO;
+import company.CompanyProfile;
+import company.CompanyProfileDAO;
+import company.ServiceDAO;
+import company.ServiceSessionManager.ServiceConfig;
+import company.ServiceSessionManager.TimeSlot;
+import customer.AppointmentDAO;
+import customer.Booking;
+import db.DBHelper;
+import db.SlotOccupancy;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The data every benchmark runs against, seeded once per fork into {@link BenchmarkDatabase}:
+ * one company with SERVICES services on weekday schedules, a booking history from
+ * HISTORY_DAYS ago to the end of the booking window, and an "Open" service with room for
+ * every write benchmark on every day. Benchmarks that add rows leave them; each fork starts
+ * from a fresh database, and runs in one JVM (-f 0) each seed their own company.
+ *
+ * The catalog cache is turned off unless -Dservicehub.cache.catalog.ttlSeconds is set, so the
+ * customer-side lookups measure the query rather than a map lookup.
+ */
+@State(Scope.Benchmark)
+public class SeededCompany {
+
+    static final int SERVICES = 25;
+    static final int PAGE_SIZE = 50;
+    private static final String[] WEEKDAYS = {"mon", "tue", "wed", "thu", "fri"};
+    private static final int SLOTS_PER_DAY = 8;
+    private static final int HISTORY_DAYS = 180;
+    private static final int SEED_BATCH = 1000;
+
+    // The DAOs print progress lines; keep them out of the benchmark output
+    static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+
+    static final String[] FIRST_NAMES = {"Aarav", "Priya", "Liam", "Sofia", "Noah", "Mei", "Omar", "Elena", "Kofi", "Hana"};
+    private static final String[] LAST_NAMES = {"Sharma", "Perera", "Smith", "Garcia", "Kim", "Chen", "Haddad", "Rossi", "Mensah", "Sato"};
+
+    /** Size of the seeded booking history. */
+    @Param("20000")
+    public int bookings;
+
+    String tag;
+    int companyId;
+    final List<Integer> serviceIds = new ArrayList<>();
+    final List<String> serviceNames = new ArrayList<>();
+    final List<Slot> slots = new ArrayList<>();
+    final List<Integer> bookingIds = new ArrayList<>();
+    int openServiceId;
+    String openServiceName;
+    Slot openSlot;
+    LocalDate today;
+    int window;
+
+    /** One weekly time slot of a seeded service. */
+    record Slot(int slotId, int serviceIndex, String dayAbbr, String start, String end) {
+        String label() {
+            return start + " - " + end;
+        }
+
+        LocalDate nextDate(LocalDate from) {
+            LocalDate date = from;
+            while (!Booking.dayAbbr(date).equalsIgnoreCase(dayAbbr)) date = date.plusDays(1);
+            return date;
+        }
+    }
+
+    /** Per-thread call counter, for spreading calls over the seeded services, slots and dates. */
+    @State(Scope.Thread)
+    public static class Counter {
+        private int i;
+
+        int next() {
+            return i++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        if (System.getProperty("servicehub.cache.catalog.ttlSeconds") == null) {
+            System.setProperty("servicehub.cache.catalog.ttlSeconds", "0");
+        }
+        BenchmarkDatabase.start();
+        // Unique per trial: with -f 0 every benchmark seeds into the same database
+        tag = "bench_" + System.currentTimeMillis();
+        today = LocalDate.now();
+        window = AppointmentDAO.bookingWindowDays();
+
+        PrintStream out = System.out;
+        System.setOut(QUIET);
+        try {
+            seedCompany();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        DBHelper.shutdown();
+    }
+
+    int serviceId(int i) {
+        return serviceIds.get(i % serviceIds.size());
+    }
+
+    Slot slot(int i) {
+        return slots.get(i % slots.size());
+    }
+
+    // ---------------- seeding -------------------
+
+    private void seedCompany() throws SQLException {
+        CompanyAuthDAO.signup(tag, tag + "@example.com", "bench");
+        companyId = CompanyAuthDAO.login(tag, "bench");
+        if (companyId < 0) throw new SQLException("Could not create the benchmark company");
+        new CompanyProfileDAO().saveCompanyProfile(profile(companyId, tag));
+
+        // 1. Services with weekday schedules, plus the open one
+        for (int n = 0; n < SERVICES; n++) {
+            String name = tag + " Service " + n;
+            serviceIds.add(ServiceDAO.saveService(service(0, name, "Seeded service " + n, n), companyId));
+            serviceNames.add(name);
+        }
+        openServiceName = tag + " Open";
+        Map<String, List<TimeSlot>> everyDay = new LinkedHashMap<>();
+        for (String day : new String[]{"mon", "tue", "wed", "thu", "fri", "sat", "sun"}) everyDay.put(day, List.of(new TimeSlot("12:00", "13:00")));
+        openServiceId = ServiceDAO.saveService(new ServiceConfig(0, openServiceName, 1_000_000, "Open", "Desk", "Reception",
+                "Always has room", true, everyDay), companyId);
+
+        try (Connection conn = DBHelper.getConnection()) {
+            // 2. Their slots
+            String slotsSql = "SELECT ts.slot_id, sd.service_id, sd.day_abbr, ts.start_time, ts.end_time FROM time_slots ts "
+                            + "JOIN service_days sd ON ts.service_day_id = sd.service_day_id "
+                            + "JOIN services s ON sd.service_id = s.service_id WHERE s.company_id = ? ORDER BY ts.slot_id";
+            try (PreparedStatement ps = conn.prepareStatement(slotsSql)) {
+                ps.setInt(1, companyId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int serviceId = rs.getInt("service_id");
+                        Slot slot = new Slot(rs.getInt("slot_id"), serviceIds.indexOf(serviceId), rs.getString("day_abbr"),
+                                rs.getString("start_time"), rs.getString("end_time"));
+                        if (serviceId == openServiceId) {
+                            if (openSlot == null) openSlot = slot;
+                        } else {
+                            slots.add(slot);
+                        }
+                    }
+                }
+            }
+
+            // 3. Booking history from HISTORY_DAYS ago to the end of the booking window
+            seedBookings(conn);
+
+            // 4. Occupancy counters for what was seeded
+            conn.setAutoCommit(false);
+            for (int serviceId : serviceIds) SlotOccupancy.rebuild(conn, serviceId);
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void seedBookings(Connection conn) throws SQLException {
+        String sql = "INSERT INTO bookings (company_id, company_name, service_name, day, slot_time, customer_name, phone, email, notes, "
+                   + "service_id, slot_id, appointment_date, booking_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Random random = new Random(42);
+        LocalDate first = today.minusDays(HISTORY_DAYS);
+        int span = HISTORY_DAYS + window;
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < bookings; i++) {
+                Slot slot = slots.get(random.nextInt(slots.size()));
+                LocalDate date = slot.nextDate(first.plusDays(random.nextInt(span - 6)));
+                LocalDateTime bookedAt = date.minusDays(random.nextInt(15)).atTime(8 + random.nextInt(12), random.nextInt(60));
+                String customer = customerName(random.nextInt(10_000));
+
+                ps.setInt(1, companyId);
+                ps.setString(2, tag);
+                ps.setString(3, serviceNames.get(slot.serviceIndex()));
+                ps.setString(4, Booking.dayAbbr(date));
+                ps.setString(5, slot.label());
+                ps.setString(6, customer);
+                ps.setString(7, "07" + (10_000_000 + random.nextInt(90_000_000)));
+                ps.setString(8, customer.toLowerCase().replace(' ', '.') + "@example.com");
+                ps.setString(9, random.nextInt(4) == 0 ? "Prefers the " + (random.nextBoolean() ? "morning" : "window seat") : "");
+                ps.setInt(10, serviceIds.get(slot.serviceIndex()));
+                ps.setInt(11, slot.slotId());
+                ps.setDate(12, Date.valueOf(date));
+                ps.setTimestamp(13, Timestamp.valueOf(bookedAt));
+                ps.addBatch();
+
+                if ((i + 1) % SEED_BATCH == 0 || i == bookings - 1) {
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) bookingIds.add(keys.getInt(1));
+                    }
+                    conn.commit();
+                }
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    static String customerName(int i) {
+        return FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    // Weekdays, SLOTS_PER_DAY half-hour slots from 09:00; capacity varies by service
+    static ServiceConfig service(int serviceId, String name, String description, int n) {
+        Map<String, List<TimeSlot>> schedule = new LinkedHashMap<>();
+        for (String day : WEEKDAYS) {
+            List<TimeSlot> daySlots = new ArrayList<>();
+            for (int s = 0; s < SLOTS_PER_DAY; s++) {
+                int minutes = 9 * 60 + s * 30;
+                daySlots.add(new TimeSlot(time(minutes), time(minutes + 30)));
+            }
+            schedule.put(day, daySlots);
+        }
+        return new ServiceConfig(serviceId, name, 4 + n % 9, "Staff", "Member " + n % 5, "Consultant", description, true, schedule);
+    }
+
+    private static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    static CompanyProfile profile(int companyId, String name) {
+        CompanyProfile cp = new CompanyProfile();
+        cp.setCompanyId(companyId);
+        cp.setOwnerName("Bench Owner");
+        cp.setCompanyName(name);
+        cp.setBusinessType("Clinic");
+        cp.setStartTime("09:00");
+        cp.setEndTime("17:00");
+        cp.setOffDays("Sun");
+        cp.setPhone("0112345678");
+        cp.setEmail(name.replace(' ', '_') + "@example.com");
+        cp.setAddress("1 Benchmark Road");
+        return cp;
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import company.ServiceDAO;
+import company.ServiceSessionManager.ServiceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * company.ServiceDAO: the services screen's reads and the service writes. The import
+ * checkpoints are only used by ServiceImporter and are not run here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceDaoBenchmark {
+
+    /** A service with a weekday schedule, created before each deleteService call and outside its timing. */
+    @State(Scope.Thread)
+    public static class Deletable {
+        int serviceId;
+        private int n;
+
+        @Setup(Level.Invocation)
+        public void create(SeededCompany f) throws SQLException {
+            PrintStream out = System.out;
+            System.setOut(SeededCompany.QUIET);
+            try {
+                int i = n++;
+                serviceId = ServiceDAO.saveService(SeededCompany.service(0, f.tag + " Deletable " + i, "to delete", i), f.companyId);
+            } finally {
+                System.setOut(out);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ServiceConfig> getActiveServicesByCompanyId(SeededCompany f) throws SQLException {
+        return ServiceDAO.getActiveServicesByCompanyId(f.companyId);
+    }
+
+    @Benchmark
+    public ServiceConfig getServiceById(SeededCompany f, SeededCompany.Counter c) throws SQLException {
+        return ServiceDAO.getServiceById(f.serviceId(c.next()), f.companyId);
+    }
+
+    @Benchmark
+    public Map<Integer, String> getServiceNames(SeededCompany f) throws SQLException {
+        return ServiceDAO.getServiceNames(f.companyId);
+    }
+
+    /** A new service with SLOTS_PER_DAY slots on each weekday. */
+    @Benchmark
+    public int saveService(SeededCompany f, SeededCompany.Counter c) throws SQLException {
+        int i = c.next();
+        return ServiceDAO.saveService(SeededCompany.service(0, f.tag + " New " + i, "created", i), f.companyId);
+    }
+
+    /** Only the description changes, so the schedule is compared and left as it is. */
+    @Benchmark
+    public int updateService(SeededCompany f, SeededCompany.Counter c) throws SQLException {
+        int i = c.next();
+        int n = i % SeededCompany.SERVICES;
+        int id = f.serviceIds.get(n);
+        return ServiceDAO.updateService(SeededCompany.service(id, f.serviceNames.get(n), "edit " + i, n), id, f.companyId);
+    }
+
+    @Benchmark
+    public void disableService(SeededCompany f, SeededCompany.Counter c) throws SQLException {
+        ServiceDAO.disableService(f.serviceId(c.next()), f.companyId);
+    }
+
+    @Benchmark
+    public void reactivateService(SeededCompany f, SeededCompany.Counter c) throws SQLException {
+        ServiceDAO.reactivateService(f.serviceId(c.next()), f.companyId);
+    }
+
+    @Benchmark
+    public void deleteService(SeededCompany f, Deletable service) throws SQLException {
+        ServiceDAO.deleteService(service.serviceId, f.companyId);
+    }
+}
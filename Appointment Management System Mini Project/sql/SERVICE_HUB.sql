@@ -61,6 +61,7 @@ CREATE TABLE services (
     num_customers INT NOT NULL, -- Retained from original
     description TEXT,           -- Retained from original
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, -- Retained from original
+    is_active TINYINT(1) NOT NULL DEFAULT 1, -- 0 = disabled by the company (ServiceDAO.disableService)
     -- --- NEW FOREIGN KEYS ---
     company_id INT NOT NULL,
     staff_id INT NOT NULL,
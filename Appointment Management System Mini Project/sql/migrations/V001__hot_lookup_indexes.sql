@@ -0,0 +1,19 @@
+-- V001: secondary indexes for the lookups the DAOs run on every screen.
+-- Apply with: java tools.MigrationRunner   (or run by hand after SERVICE_HUB.sql)
+
+-- services: AppointmentDAO.getServiceDetails / getWeeklySlots / reserveBooking / isSlotAvailable
+-- look services up by name; num_customers is included so the capacity check is index-only.
+CREATE INDEX idx_services_name ON services (service_name, num_customers);
+
+-- services: AppointmentDAO.getServicesByCompany and ServiceDAO.getActiveServicesByCompanyId
+-- (also serves the company_id foreign key)
+CREATE INDEX idx_services_company ON services (company_id, service_name);
+
+-- bookings: BookingDAO.getBookingsByCompanyId (also serves the company_id foreign key)
+CREATE INDEX idx_bookings_company ON bookings (company_id, booking_date);
+
+-- bookings: AppointmentDAO.isSlotAvailable / reserveBooking / getWeeklySlots count per slot
+CREATE INDEX idx_bookings_slot ON bookings (service_name, day, slot_time);
+
+-- staff: ServiceDAO.findOrCreateStaff
+CREATE INDEX idx_staff_name ON staff (first_name, last_name, role);
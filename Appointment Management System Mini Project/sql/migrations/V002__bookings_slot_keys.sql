@@ -0,0 +1,34 @@
+-- V002: key bookings by service_id / slot_id instead of the denormalized name strings.
+-- company_name, service_name, day and slot_time stay on the row as a snapshot of what was booked,
+-- but availability counts and joins now go through the integer keys.
+
+ALTER TABLE bookings ADD COLUMN service_id INT NULL;
+ALTER TABLE bookings ADD COLUMN slot_id INT NULL;
+
+-- Backfill from the names; rows whose service or slot no longer exists stay NULL
+UPDATE bookings b
+   SET service_id = (SELECT MIN(s.service_id) FROM services s
+                      WHERE s.company_id = b.company_id AND s.service_name = b.service_name)
+ WHERE b.service_id IS NULL;
+
+UPDATE bookings b
+   SET slot_id = (SELECT MIN(ts.slot_id) FROM service_days sd
+                    JOIN time_slots ts ON ts.service_day_id = sd.service_day_id
+                   WHERE sd.service_id = b.service_id AND sd.day_abbr = b.day
+                     AND CONCAT(ts.start_time, ' - ', ts.end_time) = b.slot_time)
+ WHERE b.slot_id IS NULL AND b.service_id IS NOT NULL;
+
+-- Indexes first, so the foreign keys below reuse them
+-- AppointmentDAO.reserveBooking / isSlotAvailable / getWeeklySlots count per slot_id
+CREATE INDEX idx_bookings_slot_id ON bookings (slot_id);
+-- BookingDAO.getBookingsByCompanyId joins services; ServiceDAO.updateService re-links by service_id
+CREATE INDEX idx_bookings_service_id ON bookings (service_id, slot_id);
+
+-- Deleting a service or slot keeps its bookings (history) but unlinks them
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_service
+    FOREIGN KEY (service_id) REFERENCES services(service_id) ON DELETE SET NULL;
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_slot
+    FOREIGN KEY (slot_id) REFERENCES time_slots(slot_id) ON DELETE SET NULL;
+
+-- Nothing looks bookings up by the name strings any more
+DROP INDEX idx_bookings_slot ON bookings;
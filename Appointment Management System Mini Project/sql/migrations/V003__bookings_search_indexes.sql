@@ -0,0 +1,17 @@
+-- V003: indexes for the filtered / sorted / searched bookings list (BookingDAO.getBookingsPage).
+
+-- Keyset paging compares the sort column and booking_id; NULLs would drop rows from the pages
+UPDATE bookings SET customer_name = '' WHERE customer_name IS NULL;
+UPDATE bookings SET booking_date = CURRENT_TIMESTAMP WHERE booking_date IS NULL;
+ALTER TABLE bookings MODIFY customer_name VARCHAR(255) NOT NULL DEFAULT '';
+ALTER TABLE bookings MODIFY booking_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Filter by service, newest first
+CREATE INDEX idx_bookings_company_service ON bookings (company_id, service_id, booking_date);
+-- Filter by weekday, newest first
+CREATE INDEX idx_bookings_company_day ON bookings (company_id, day, booking_date);
+-- Sort by customer name (booking_id is appended implicitly)
+CREATE INDEX idx_bookings_company_customer ON bookings (company_id, customer_name);
+
+-- Word search in customer name and notes (MATCH ... AGAINST ... IN BOOLEAN MODE)
+CREATE FULLTEXT INDEX ft_bookings_customer_notes ON bookings (customer_name, notes);
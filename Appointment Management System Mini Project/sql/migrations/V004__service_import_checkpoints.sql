@@ -0,0 +1,14 @@
+-- V004: progress of bulk service imports (company.ServiceImporter).
+
+-- One row per company and import file (identified by its SHA-256). records_done is
+-- written in the same transaction as each imported chunk, so running the same file
+-- again continues right after the last committed chunk.
+CREATE TABLE service_import_checkpoints (
+    company_id INT NOT NULL,
+    source_sha256 CHAR(64) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    records_done INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (company_id, source_sha256),
+    FOREIGN KEY (company_id) REFERENCES company_profiles(company_id) ON DELETE CASCADE
+);
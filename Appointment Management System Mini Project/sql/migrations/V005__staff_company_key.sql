@@ -0,0 +1,36 @@
+-- V005: staff are looked up per company (ServiceDAO.findOrCreateStaff) through a unique
+-- (company_id, first_name, last_name, role) key.
+
+-- The unique key needs a non-NULL role (NULLs never collide)
+UPDATE staff SET role = '' WHERE role IS NULL;
+ALTER TABLE staff MODIFY role VARCHAR(50) NOT NULL DEFAULT '';
+
+-- The old lookup ignored company_id, so a service could point at another company's staff row.
+-- Give each such company its own copy of that provider...
+INSERT INTO staff (company_id, first_name, last_name, role)
+SELECT DISTINCT s.company_id, st.first_name, st.last_name, st.role
+  FROM services s
+  JOIN staff st ON st.staff_id = s.staff_id
+ WHERE st.company_id <> s.company_id
+   AND NOT EXISTS (SELECT 1 FROM staff own
+                    WHERE own.company_id = s.company_id AND own.first_name = st.first_name
+                      AND own.last_name = st.last_name AND own.role = st.role);
+
+-- ...then point every service at the lowest staff_id with its provider's name in its own company.
+-- This also merges duplicate rows within a company.
+UPDATE services
+   SET staff_id = (SELECT MIN(own.staff_id)
+                     FROM staff cur
+                     JOIN staff own ON own.first_name = cur.first_name AND own.last_name = cur.last_name
+                                   AND own.role = cur.role
+                    WHERE cur.staff_id = services.staff_id AND own.company_id = services.company_id);
+
+-- Drop the duplicates no service uses any more (the derived table lets MySQL read staff while deleting from it)
+DELETE FROM staff
+ WHERE staff_id NOT IN (SELECT keep_id FROM (SELECT MIN(staff_id) AS keep_id FROM staff
+                                              GROUP BY company_id, first_name, last_name, role) keep)
+   AND staff_id NOT IN (SELECT staff_id FROM services);
+
+CREATE UNIQUE INDEX uk_staff_company_name ON staff (company_id, first_name, last_name, role);
+-- Replaced by the unique key, which leads with company_id
+DROP INDEX idx_staff_name ON staff;
@@ -0,0 +1,13 @@
+-- V006: number of bookings per time slot, kept up to date by the booking writes (db.SlotOccupancy),
+-- so availability checks read one row instead of counting bookings.
+-- tools.SlotOccupancyReconciler rebuilds it from bookings.
+
+CREATE TABLE slot_occupancy (
+    slot_id INT PRIMARY KEY,
+    booked INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (slot_id) REFERENCES time_slots(slot_id) ON DELETE CASCADE
+);
+
+-- Backfill; slots without bookings get their row on first booking
+INSERT INTO slot_occupancy (slot_id, booked)
+SELECT slot_id, COUNT(*) FROM bookings WHERE slot_id IS NOT NULL GROUP BY slot_id;
@@ -0,0 +1,37 @@
+-- V007: a booking is for one dated occurrence of a weekly slot, and capacity is per occurrence.
+-- Until now bookings.day only held the weekday, so every booking ever made for "Mon 10:00"
+-- counted against the same num_customers.
+
+ALTER TABLE bookings ADD COLUMN appointment_date DATE NULL;
+
+-- Older bookings were made for the next occurrence of their weekday: the first one on or
+-- after the day they were made. Rows with an unknown day stay NULL and take no capacity.
+-- (WEEKDAY: Monday = 0)
+UPDATE bookings
+   SET appointment_date = DATE_ADD(DATE(booking_date), INTERVAL MOD(
+           CASE LOWER(day) WHEN 'mon' THEN 0 WHEN 'tue' THEN 1 WHEN 'wed' THEN 2 WHEN 'thu' THEN 3
+                           WHEN 'fri' THEN 4 WHEN 'sat' THEN 5 WHEN 'sun' THEN 6 END
+           - WEEKDAY(booking_date) + 7, 7) DAY)
+ WHERE appointment_date IS NULL
+   AND LOWER(day) IN ('mon', 'tue', 'wed', 'thu', 'fri', 'sat', 'sun');
+
+-- db.SlotOccupancy.rebuild counts per (slot_id, appointment_date); leads with slot_id so
+-- fk_bookings_slot can use it in place of idx_bookings_slot_id
+CREATE INDEX idx_bookings_slot_date ON bookings (slot_id, appointment_date);
+DROP INDEX idx_bookings_slot_id ON bookings;
+
+-- The counters from V006 are per slot; they are derived data, so rebuild them per date
+DROP TABLE slot_occupancy;
+
+CREATE TABLE slot_occupancy (
+    slot_id INT NOT NULL,
+    appointment_date DATE NOT NULL,
+    booked INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot_id, appointment_date),
+    FOREIGN KEY (slot_id) REFERENCES time_slots(slot_id) ON DELETE CASCADE
+);
+
+INSERT INTO slot_occupancy (slot_id, appointment_date, booked)
+SELECT slot_id, appointment_date, COUNT(*) FROM bookings
+ WHERE slot_id IS NOT NULL AND appointment_date IS NOT NULL
+ GROUP BY slot_id, appointment_date;
@@ -0,0 +1,5 @@
+-- V008: idx_services_name (V001) served the by-name service lookups. Since the booking screen
+-- looks services up by service_id, no query filters on service_name alone; the one by-name
+-- path (AppointmentDAO.findSlot's fallback) joins through company_id and uses idx_services_company.
+-- The index only costs writes now.
+DROP INDEX idx_services_name ON services;
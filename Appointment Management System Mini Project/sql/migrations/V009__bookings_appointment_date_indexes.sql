@@ -0,0 +1,13 @@
+-- V009: the bookings list filters and sorts on appointment_date (the day the customer comes in),
+-- not booking_date (when they booked). Same shapes as the V003 indexes, on the new column.
+
+-- Date range, newest / oldest appointment first
+CREATE INDEX idx_bookings_company_appointment ON bookings (company_id, appointment_date);
+-- Filter by service, by appointment
+CREATE INDEX idx_bookings_company_service_appt ON bookings (company_id, service_id, appointment_date);
+-- Filter by weekday, by appointment
+CREATE INDEX idx_bookings_company_day_appt ON bookings (company_id, day, appointment_date);
+
+-- Nothing orders or ranges on booking_date any more; the new indexes cover their prefixes
+DROP INDEX idx_bookings_company_service ON bookings;
+DROP INDEX idx_bookings_company_day ON bookings;
@@ -6,13 +6,30 @@ public class Booking {
     private String serviceName;
     private String bookingDate;
     private String timeSlot;
+    private String appointmentDate; // null for bookings made before appointments had dates
+    // Only filled in by BookingDAO.streamBookings (exports); null on the paged table rows
+    private String day;
+    private String phone;
+    private String email;
+    private String notes;
 
-    public Booking(int bookingId, String customerName, String serviceName, String bookingDate, String timeSlot) {
+    public Booking(int bookingId, String customerName, String serviceName, String bookingDate, String timeSlot,
+                   String appointmentDate) {
+        this(bookingId, customerName, serviceName, bookingDate, timeSlot, appointmentDate, null, null, null, null);
+    }
+
+    public Booking(int bookingId, String customerName, String serviceName, String bookingDate, String timeSlot,
+                   String appointmentDate, String day, String phone, String email, String notes) {
         this.bookingId = bookingId;
         this.customerName = customerName;
         this.serviceName = serviceName;
         this.bookingDate = bookingDate;
         this.timeSlot = timeSlot;
+        this.appointmentDate = appointmentDate;
+        this.day = day;
+        this.phone = phone;
+        this.email = email;
+        this.notes = notes;
     }
 
     public int getBookingId() { return bookingId; }
@@ -20,4 +37,9 @@ public class Booking {
     public String getServiceName() { return serviceName; }
     public String getBookingDate() { return bookingDate; }
     public String getTimeSlot() { return timeSlot; }
+    public String getAppointmentDate() { return appointmentDate; }
+    public String getDay() { return day; }
+    public String getPhone() { return phone; }
+    public String getEmail() { return email; }
+    public String getNotes() { return notes; }
 }
@@ -1,17 +1,55 @@
 package company;
 
+import db.DBConfig;
 import db.DBHelper;
+import db.SlotOccupancy;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class BookingDAO {
 
+    /** Position after the last row of a page: its sort column value and booking_id. */
+    public static record PageCursor(Object sortValue, int bookingId) {}
+
+    /** One page of bookings; next is null on the last page. */
+    public static record BookingPage(List<Booking> bookings, PageCursor next) {
+        public boolean hasMore() { return next != null; }
+    }
+
+    // Current service name via service_id, so renamed services show their new name;
+    // the stored name is only used when the service no longer exists
+    private static final String SELECT_COLUMNS =
+            "SELECT b.booking_id, b.customer_name, COALESCE(s.service_name, b.service_name) AS service_name, " +
+            "b.booking_date, b.slot_time, b.appointment_date";
+    private static final String FROM_BOOKINGS =
+            " FROM bookings b LEFT JOIN services s ON s.service_id = b.service_id " +
+            "WHERE b.company_id = ?";
+    public static final String SELECT_BOOKINGS = SELECT_COLUMNS + FROM_BOOKINGS;
+    // Contact details and notes, read only when streaming (exports)
+    private static final String DETAIL_COLUMNS = ", b.day, b.phone, b.email, b.notes";
+
+    private static final String SORT_KEY = "sort_key";
+
+    // cancelBooking locks the row first, so a concurrent cancel of it gives its place back only once
+    public static final String CANCEL_FIND_SQL =
+            "SELECT slot_id, appointment_date FROM bookings WHERE booking_id = ? AND company_id = ? FOR UPDATE";
+    public static final String CANCEL_DELETE_SQL = "DELETE FROM bookings WHERE booking_id = ?";
+
+    /** A statement built from a BookingQuery and the values to bind to it, in order. */
+    public static record BoundSql(String sql, List<Object> params) {}
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // innodb_ft_min_token_size default; shorter words are not in the FULLTEXT index
+    private static final int FULLTEXT_MIN_WORD = 3;
+
     public List<Booking> getBookingsByCompanyId(int companyId) {
         List<Booking> bookings = new ArrayList<>();
 
-        String sql = "SELECT booking_id, customer_name, service_name, booking_date, slot_time " +
-                     "FROM bookings WHERE company_id = ?";
+        String sql = SELECT_BOOKINGS;
 
         try (Connection conn = DBHelper.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -20,22 +58,7 @@ public class BookingDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Booking booking = new Booking(
-                        rs.getInt("booking_id"),
-                        rs.getString("customer_name"),
-                        rs.getString("service_name"),
-                        rs.getString("booking_date"),
-                        rs.getString("slot_time")
-                );
-                bookings.add(booking);
-            }
-            // Log for terminal
-            System.out.println("=== DAO DEBUG: Fetched " + bookings.size() + " bookings for companyId=" + companyId + " ===");
-            if (bookings.isEmpty()) {
-                System.out.println("=== DAO: No matches – verify DB data for this ID ===");
-            } else {
-                // Bonus: Print first row for sanity
-                System.out.println("=== DAO Sample: " + bookings.get(0).getCustomerName() + " on " + bookings.get(0).getBookingDate() + " ===");
+                bookings.add(mapBooking(rs));
             }
 
         } catch (SQLException e) {
@@ -48,4 +71,282 @@ public class BookingDAO {
 
         return bookings;
     }
-}
\ No newline at end of file
+
+    /**
+     * One page of a company's bookings, latest appointment first, using keyset pagination:
+     * pass the previous page's next() cursor (or null for the first page), so each
+     * page is an index range read no matter how deep the user scrolls.
+     * from/to limit appointment_date to [from, to); either may be null.
+     */
+    public BookingPage getBookingsPage(int companyId, LocalDate from, LocalDate to, PageCursor after, int pageSize) throws SQLException {
+        return getBookingsPage(BookingQuery.forCompany(companyId).withDateRange(from, to), after, pageSize);
+    }
+
+    /**
+     * One page of bookings matching the query, in the query's sort order. Filters,
+     * search and sorting all run in MySQL; pages continue from the previous page's
+     * next() cursor (null for the first page), which must come from the same query.
+     */
+    public BookingPage getBookingsPage(BookingQuery query, PageCursor after, int pageSize) throws SQLException {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+
+        BoundSql page = pageSql(query, after, pageSize);
+        List<Booking> bookings = new ArrayList<>(pageSize);
+        PageCursor next = null;
+
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(page.sql())) {
+
+            bind(stmt, page.params());
+            try (ResultSet rs = stmt.executeQuery()) {
+                Object lastValue = null;
+                int lastId = 0;
+                while (rs.next()) {
+                    if (bookings.size() == pageSize) {
+                        next = new PageCursor(lastValue, lastId);
+                        break;
+                    }
+                    bookings.add(mapBooking(rs));
+                    lastValue = rs.getObject(SORT_KEY);
+                    lastId = rs.getInt("booking_id");
+                }
+            }
+        }
+        return new BookingPage(bookings, next);
+    }
+
+    /**
+     * Streams a company's bookings, latest appointment first, to the consumer one row at a time
+     * without building a list. from/to limit appointment_date to [from, to); either may be null.
+     */
+    public int streamBookings(int companyId, LocalDate from, LocalDate to, Consumer<Booking> consumer) throws SQLException {
+        return streamBookings(BookingQuery.forCompany(companyId).withDateRange(from, to), consumer);
+    }
+
+    /**
+     * Streams the bookings matching the query to the consumer one row at a time,
+     * without building a list. Unlike the pages, these rows include the day, contact
+     * details and notes.
+     *
+     * The connection stays busy until the last row is read, so the consumer should be
+     * quick (e.g. write to a file) rather than wait on other database work.
+     * Returns the number of rows delivered.
+     */
+    public int streamBookings(BookingQuery query, Consumer<Booking> consumer) throws SQLException {
+        BoundSql stream = streamSql(query);
+
+        int count = 0;
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(stream.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(streamingFetchSize(conn));
+            bind(stmt, stream.params());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapBookingDetails(rs));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cancels (deletes) one of the company's bookings and frees its place in the slot,
+     * as one transaction. Returns false if the company has no such booking.
+     */
+    public boolean cancelBooking(int companyId, int bookingId) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DBHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            // 1. Lock the booking and see which slot and date it holds (none if its slot was deleted)
+            Integer slotId;
+            Date date;
+            try (PreparedStatement stmt = conn.prepareStatement(CANCEL_FIND_SQL)) {
+                stmt.setInt(1, bookingId);
+                stmt.setInt(2, companyId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return false;
+                    }
+                    slotId = rs.getObject("slot_id", Integer.class);
+                    date = rs.getDate("appointment_date");
+                }
+            }
+
+            // 2. Delete it and give the place back
+            try (PreparedStatement stmt = conn.prepareStatement(CANCEL_DELETE_SQL)) {
+                stmt.setInt(1, bookingId);
+                stmt.executeUpdate();
+            }
+            if (slotId != null && date != null) SlotOccupancy.release(conn, slotId, date.toLocalDate());
+
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+            }
+            throw e;
+        } finally {
+            DBHelper.close(conn, null, null);
+        }
+    }
+
+    /** The statement getBookingsPage runs for this query, cursor and page size. */
+    public static BoundSql pageSql(BookingQuery query, PageCursor after, int pageSize) {
+        BookingQuery.Sort sort = query.sort();
+        StringBuilder sql = new StringBuilder(selectSorted(sort));
+        List<Object> params = new ArrayList<>();
+        params.add(query.companyId());
+        appendFilters(sql, params, query);
+        if (after != null) appendAfter(sql, params, sort, after);
+        appendOrderBy(sql, sort);
+        sql.append(" LIMIT ?");
+        params.add(pageSize + 1); // one extra row tells us whether another page exists
+        return new BoundSql(sql.toString(), params);
+    }
+
+    /** The statement streamBookings runs for this query. */
+    public static BoundSql streamSql(BookingQuery query) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS + DETAIL_COLUMNS + FROM_BOOKINGS);
+        List<Object> params = new ArrayList<>();
+        params.add(query.companyId());
+        appendFilters(sql, params, query);
+        appendOrderBy(sql, query.sort());
+        return new BoundSql(sql.toString(), params);
+    }
+
+    /**
+     * Connector/J buffers whole result sets unless told otherwise: with useCursorFetch
+     * it fetches STREAM_FETCH_SIZE rows per round trip, otherwise Integer.MIN_VALUE
+     * switches it to row-by-row streaming. Other drivers take the fetch size as a hint.
+     */
+    private static int streamingFetchSize(Connection conn) throws SQLException {
+        boolean mysql = conn.getMetaData().getURL().startsWith("jdbc:mysql:");
+        boolean cursorFetch = DBConfig.get().getBoolean("mysql.useCursorFetch");
+        return mysql && !cursorFetch ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+    }
+
+    // Each filter lines up with an index from V003/V009: (company_id, appointment_date),
+    // (company_id, service_id, appointment_date), (company_id, day, appointment_date),
+    // (company_id, customer_name) and the FULLTEXT on customer_name/notes
+    private static void appendFilters(StringBuilder sql, List<Object> params, BookingQuery query) {
+        if (query.serviceId() != null) {
+            sql.append(" AND b.service_id = ?");
+            params.add(query.serviceId());
+        }
+        if (query.day() != null) {
+            sql.append(" AND b.day = ?");
+            params.add(query.day());
+        }
+        if (query.from() != null) {
+            sql.append(" AND b.appointment_date >= ?");
+            params.add(Date.valueOf(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND b.appointment_date < ?");
+            params.add(Date.valueOf(query.to()));
+        }
+        if (query.search() != null) {
+            appendSearch(sql, params, query.search());
+        }
+    }
+
+    /**
+     * Every word must match. Words of at least FULLTEXT_MIN_WORD characters go through the
+     * FULLTEXT index as prefix terms; shorter ones (which InnoDB does not index) fall back
+     * to a LIKE on the customer name.
+     */
+    private static void appendSearch(StringBuilder sql, List<Object> params, String search) {
+        StringBuilder against = new StringBuilder();
+        for (String word : search.trim().split("\\s+")) {
+            // Drop boolean-mode operators so user input can't change the query's meaning
+            String term = word.replaceAll("[^\\p{L}\\p{N}_']", "");
+            if (term.isEmpty()) continue;
+            if (term.length() >= FULLTEXT_MIN_WORD) {
+                against.append(against.length() > 0 ? " " : "").append('+').append(term).append('*');
+            } else {
+                sql.append(" AND b.customer_name LIKE ?");
+                params.add("%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            }
+        }
+        if (against.length() > 0) {
+            sql.append(" AND MATCH(b.customer_name, b.notes) AGAINST (? IN BOOLEAN MODE)");
+            params.add(against.toString());
+        }
+    }
+
+    /**
+     * Rows after the cursor: (sort column, booking_id) < (?, ?), or > for ascending; the leading
+     * <= / >= lets MySQL use a range scan. A nullable column's NULLs sort lowest, as MySQL orders
+     * them: they come after every value when descending and before every value when ascending.
+     */
+    private static void appendAfter(StringBuilder sql, List<Object> params, BookingQuery.Sort sort, PageCursor after) {
+        String col = sort.column;
+        String lt = sort.descending ? "<" : ">";
+        if (after.sortValue() == null) {
+            // The cursor is among the NULLs
+            sql.append(sort.descending ? " AND " + col + " IS NULL AND b.booking_id < ?"
+                                       : " AND (" + col + " IS NOT NULL OR b.booking_id > ?)");
+            params.add(after.bookingId());
+            return;
+        }
+        String lte = sort.descending ? "<=" : ">=";
+        boolean nullsFollow = sort.nullable && sort.descending;
+        sql.append(" AND ").append(nullsFollow ? "(" + col + " IS NULL OR " : "")
+           .append(col).append(' ').append(lte).append(" ?")
+           .append(" AND (").append(col).append(' ').append(lt).append(" ? OR b.booking_id ").append(lt).append(" ?)")
+           .append(nullsFollow ? ")" : "");
+        params.add(after.sortValue());
+        params.add(after.sortValue());
+        params.add(after.bookingId());
+    }
+
+    // The sort column is selected again under a fixed alias so the page cursor can read it back
+    private static String selectSorted(BookingQuery.Sort sort) {
+        return SELECT_COLUMNS + ", " + sort.column + " AS " + SORT_KEY + FROM_BOOKINGS;
+    }
+
+    private static void appendOrderBy(StringBuilder sql, BookingQuery.Sort sort) {
+        String dir = sort.descending ? " DESC" : " ASC";
+        sql.append(" ORDER BY ").append(sort.column).append(dir).append(", b.booking_id").append(dir);
+    }
+
+    private static void bind(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) stmt.setObject(i + 1, params.get(i));
+    }
+
+    private static Booking mapBooking(ResultSet rs) throws SQLException {
+        return new Booking(
+                rs.getInt("booking_id"),
+                rs.getString("customer_name"),
+                rs.getString("service_name"),
+                rs.getString("booking_date"),
+                rs.getString("slot_time"),
+                rs.getString("appointment_date")
+        );
+    }
+
+    private static Booking mapBookingDetails(ResultSet rs) throws SQLException {
+        return new Booking(
+                rs.getInt("booking_id"),
+                rs.getString("customer_name"),
+                rs.getString("service_name"),
+                rs.getString("booking_date"),
+                rs.getString("slot_time"),
+                rs.getString("appointment_date"),
+                rs.getString("day"),
+                rs.getString("phone"),
+                rs.getString("email"),
+                rs.getString("notes")
+        );
+    }
+}
@@ -0,0 +1,220 @@
+package company;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a company's bookings to a CSV or JSON file, optionally gzip-compressed.
+ *
+ * Rows come from BookingDAO.streamBookings (a forward-only cursor) and go straight into
+ * a buffered writer, so memory use does not grow with the number of bookings. The file
+ * is written under a temporary name and only renamed into place once complete, so a
+ * failed export never leaves a truncated file behind.
+ *
+ * Runs on the calling thread; call it off the FX thread (e.g. through AsyncLoader).
+ */
+public class BookingExporter {
+
+    public enum Format { CSV, JSON }
+
+    /** Called every PROGRESS_EVERY rows and once at the end, on the exporting thread. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int rowsWritten);
+    }
+
+    public static final int PROGRESS_EVERY = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] CSV_HEADER = {
+        "booking_id", "customer_name", "service_name", "appointment_date", "day", "slot_time", "booking_date", "phone", "email", "notes"
+    };
+
+    private final BookingDAO dao;
+
+    public BookingExporter() {
+        this(new BookingDAO());
+    }
+
+    public BookingExporter(BookingDAO dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Exports the bookings matching the query, in its sort order. The format follows the
+     * file name: .csv or .json, with a trailing .gz for gzip. Returns the rows written.
+     */
+    public int export(BookingQuery query, Path file, ProgressListener listener) throws IOException, SQLException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) name = name.substring(0, name.length() - 3);
+
+        Format format;
+        if (name.endsWith(".csv")) format = Format.CSV;
+        else if (name.endsWith(".json")) format = Format.JSON;
+        else throw new IOException("Unsupported export file (expected .csv, .json, .csv.gz or .json.gz): " + file.getFileName());
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+        try {
+            int rows;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                rows = export(query, out, format, gzip, listener);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            return rows;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Writes the bookings matching the query to out (which is closed afterwards). */
+    public int export(BookingQuery query, OutputStream out, Format format, boolean gzip, ProgressListener listener) throws IOException, SQLException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            RowWriter rows = format == Format.CSV ? new CsvRows(writer) : new JsonRows(writer);
+            rows.begin();
+
+            int[] written = {0};
+            try {
+                dao.streamBookings(query, booking -> {
+                    try {
+                        rows.write(booking, written[0]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // unwrapped below; stops the cursor
+                    }
+                    written[0]++;
+                    if (listener != null && written[0] % PROGRESS_EVERY == 0) listener.onProgress(written[0]);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            rows.end();
+            if (listener != null) listener.onProgress(written[0]);
+            return written[0];
+        }
+    }
+
+    // ---------------- formats -------------------
+
+    private interface RowWriter {
+        void begin() throws IOException;
+        void write(Booking b, int index) throws IOException;
+        void end() throws IOException;
+    }
+
+    /** RFC 4180: fields with commas, quotes or line breaks are quoted, quotes doubled. */
+    private static final class CsvRows implements RowWriter {
+        private final Writer w;
+
+        CsvRows(Writer w) { this.w = w; }
+
+        @Override
+        public void begin() throws IOException {
+            w.write(String.join(",", CSV_HEADER));
+            w.write("\r\n");
+        }
+
+        @Override
+        public void write(Booking b, int index) throws IOException {
+            w.write(Integer.toString(b.getBookingId()));
+            field(b.getCustomerName());
+            field(b.getServiceName());
+            field(b.getAppointmentDate());
+            field(b.getDay());
+            field(b.getTimeSlot());
+            field(b.getBookingDate());
+            field(b.getPhone());
+            field(b.getEmail());
+            field(b.getNotes());
+            w.write("\r\n");
+        }
+
+        @Override
+        public void end() {}
+
+        private void field(String value) throws IOException {
+            w.write(',');
+            if (value == null) return;
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                w.write(value);
+                return;
+            }
+            w.write('"');
+            w.write(value.replace("\"", "\"\""));
+            w.write('"');
+        }
+    }
+
+    /** A JSON array with one object per booking; missing values are null. */
+    private static final class JsonRows implements RowWriter {
+        private final Writer w;
+
+        JsonRows(Writer w) { this.w = w; }
+
+        @Override
+        public void begin() throws IOException {
+            w.write('[');
+        }
+
+        @Override
+        public void write(Booking b, int index) throws IOException {
+            w.write(index == 0 ? "\n" : ",\n");
+            w.write("{\"bookingId\":");
+            w.write(Integer.toString(b.getBookingId()));
+            field("customerName", b.getCustomerName());
+            field("serviceName", b.getServiceName());
+            field("appointmentDate", b.getAppointmentDate());
+            field("day", b.getDay());
+            field("slotTime", b.getTimeSlot());
+            field("bookingDate", b.getBookingDate());
+            field("phone", b.getPhone());
+            field("email", b.getEmail());
+            field("notes", b.getNotes());
+            w.write('}');
+        }
+
+        @Override
+        public void end() throws IOException {
+            w.write("\n]\n");
+        }
+
+        private void field(String key, String value) throws IOException {
+            w.write(",\"");
+            w.write(key);
+            w.write("\":");
+            if (value == null) {
+                w.write("null");
+                return;
+            }
+            w.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': w.write("\\\""); break;
+                    case '\\': w.write("\\\\"); break;
+                    case '\n': w.write("\\n"); break;
+                    case '\r': w.write("\\r"); break;
+                    case '\t': w.write("\\t"); break;
+                    default:
+                        if (c < 0x20) w.write(String.format("\\u%04x", (int) c));
+                        else w.write(c);
+                }
+            }
+            w.write('"');
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package company;
+
+import java.time.LocalDate;
+
+/**
+ * Filter, search and sort options for BookingDAO.getBookingsPage / streamBookings.
+ * Every option is applied in SQL; null (or blank) means "don't filter on this".
+ *
+ *   BookingQuery.forCompany(id).withDay("Mon").withSearch("smith")
+ */
+public record BookingQuery(int companyId, Integer serviceId, String day, LocalDate from, LocalDate to,
+                           String search, Sort sort) {
+
+    /**
+     * Orders the bookings list can be sorted in; booking_id breaks ties so paging is stable.
+     * NEWEST_FIRST / OLDEST_FIRST go by appointment date. Bookings without one (made before
+     * V007 with an unknown day) sort as MySQL sorts NULL: last when newest first, first otherwise.
+     */
+    public enum Sort {
+        NEWEST_FIRST("b.appointment_date", true, true),
+        OLDEST_FIRST("b.appointment_date", false, true),
+        CUSTOMER_A_Z("b.customer_name", false, false),
+        CUSTOMER_Z_A("b.customer_name", true, false);
+
+        final String column;
+        final boolean descending;
+        final boolean nullable;
+
+        Sort(String column, boolean descending, boolean nullable) {
+            this.column = column;
+            this.descending = descending;
+            this.nullable = nullable;
+        }
+    }
+
+    public BookingQuery {
+        if (sort == null) sort = Sort.NEWEST_FIRST;
+        if (day != null && day.isBlank()) day = null;
+        if (search != null && search.isBlank()) search = null;
+    }
+
+    public static BookingQuery forCompany(int companyId) {
+        return new BookingQuery(companyId, null, null, null, null, null, Sort.NEWEST_FIRST);
+    }
+
+    public BookingQuery withService(Integer serviceId) {
+        return new BookingQuery(companyId, serviceId, day, from, to, search, sort);
+    }
+
+    /** Weekday as the booking screen stores it ("Mon"); matching ignores case. */
+    public BookingQuery withDay(String day) {
+        return new BookingQuery(companyId, serviceId, day, from, to, search, sort);
+    }
+
+    /** appointment_date in [from, to); either end may be null. Undated bookings never match. */
+    public BookingQuery withDateRange(LocalDate from, LocalDate to) {
+        return new BookingQuery(companyId, serviceId, day, from, to, search, sort);
+    }
+
+    /** Words to look for in the customer name and notes. */
+    public BookingQuery withSearch(String search) {
+        return new BookingQuery(companyId, serviceId, day, from, to, search, sort);
+    }
+
+    public BookingQuery withSort(Sort sort) {
+        return new BookingQuery(companyId, serviceId, day, from, to, search, sort);
+    }
+}
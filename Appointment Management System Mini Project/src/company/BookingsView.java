@@ -0,0 +1,401 @@
+package company;
+
+import db.AsyncLoader;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bookings tab of the company dashboard.
+ *
+ * Built once per dashboard and reused between visits. Rows are fetched a page at a
+ * time in the background (BookingDAO.getBookingsPage); the next page is requested
+ * when the table renders a row close to the end of what is loaded. TableView only
+ * creates cells for visible rows, so the tab opens at the same speed however many
+ * bookings the company has.
+ *
+ * The filter bar and the Customer/Date column headers change the BookingQuery;
+ * filtering, search and sorting happen in MySQL, never on the loaded rows.
+ * Export writes every booking matching the current query to a file (BookingExporter),
+ * not just the rows loaded so far.
+ */
+public class BookingsView {
+
+    private static final int PAGE_SIZE = 100;
+    // Start fetching the next page when a row this close to the end is shown
+    private static final int PREFETCH_ROWS = 20;
+    private static final String[] DAYS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+
+    /** Entry of the service filter; id null means all services. */
+    private record ServiceOption(Integer id, String name) {
+        @Override
+        public String toString() { return name; }
+    }
+
+    private static final ServiceOption ALL_SERVICES = new ServiceOption(null, "All services");
+    private static final String ANY_DAY = "Any day";
+
+    private final int companyId;
+    private final BookingDAO dao = new BookingDAO();
+    private final AsyncLoader loader = new AsyncLoader();
+
+    private final ObservableList<Booking> rows = FXCollections.observableArrayList();
+    private final VBox root;
+    private final TableView<Booking> table;
+    private final Label statusLabel = new Label();
+    private final Label actionLabel = new Label(); // outcome of the last export or cancellation
+    private final Button exportBtn = new Button("Export...");
+    private final Button cancelBtn = new Button("Cancel Booking");
+
+    // Filter bar
+    private final ComboBox<ServiceOption> serviceFilter = new ComboBox<>();
+    private final ComboBox<String> dayFilter = new ComboBox<>();
+    private final DatePicker fromPicker = new DatePicker();
+    private final DatePicker toPicker = new DatePicker();
+    private final TextField searchField = new TextField();
+    // Waits for a pause in typing before searching
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(300));
+    private boolean resettingFilters = false;
+
+    private TableColumn<Booking, String> colCust;
+    private TableColumn<Booking, String> colAppointment;
+
+    // Paging state, only touched on the FX thread
+    private BookingQuery query;
+    private BookingDAO.PageCursor nextCursor;
+    private boolean hasMore = true;
+    private boolean loading = false;
+    private boolean loadedOnce = false;
+
+    public BookingsView(int companyId) {
+        this.companyId = companyId;
+        this.query = BookingQuery.forCompany(companyId);
+        this.table = createTable();
+
+        Label header = new Label("Bookings Section");
+        header.setFont(Font.font("Inter", FontWeight.BOLD, 20));
+
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setPrefSize(18, 18);
+        spinner.visibleProperty().bind(loader.busyProperty());
+
+        HBox status = new HBox(8, statusLabel, spinner, actionLabel);
+        status.setAlignment(Pos.CENTER_LEFT);
+
+        VBox.setVgrow(table, Priority.ALWAYS);
+        root = new VBox(10, header, createFilterBar(), status, table);
+        root.setMaxWidth(Double.MAX_VALUE);
+    }
+
+    public VBox getRoot() {
+        return root;
+    }
+
+    /** Called each time the tab is opened: first visit loads page one, later visits refresh it. */
+    public void show() {
+        loadServiceOptions();
+        if (!loadedOnce) {
+            loadNextPage();
+        } else {
+            reload();
+        }
+    }
+
+    /** Starts over from the first row of the current query, keeping the current rows on screen until it arrives. */
+    public void reload() {
+        loader.cancel("page");
+        loading = false;
+        nextCursor = null;
+        hasMore = true;
+        loadPage(true);
+    }
+
+    private void loadNextPage() {
+        if (loading || !hasMore) return;
+        loadPage(false);
+    }
+
+    private void loadPage(boolean replace) {
+        loading = true;
+        BookingQuery q = query;
+        BookingDAO.PageCursor after = replace ? null : nextCursor;
+        statusLabel.setText(rows.isEmpty() ? "Loading bookings..." : statusText() + " — loading more...");
+
+        loader.load("page",
+            () -> dao.getBookingsPage(q, after, PAGE_SIZE),
+            page -> {
+                loading = false;
+                loadedOnce = true;
+                if (replace) {
+                    rows.setAll(page.bookings());
+                    table.scrollTo(0);
+                } else {
+                    rows.addAll(page.bookings());
+                }
+                nextCursor = page.next();
+                hasMore = page.hasMore();
+                statusLabel.setText(statusText());
+            },
+            err -> {
+                loading = false;
+                err.printStackTrace();
+                statusLabel.setText("Error loading bookings: " + err.getMessage());
+            });
+    }
+
+    private String statusText() {
+        if (rows.isEmpty()) return isFiltered() ? "No bookings match the filters." : "No bookings yet.";
+        return "Showing " + rows.size() + (hasMore ? "+ bookings (scroll for more)" : " bookings");
+    }
+
+    private boolean isFiltered() {
+        return query.serviceId() != null || query.day() != null || query.from() != null
+            || query.to() != null || query.search() != null;
+    }
+
+    // ---------------- Filters -------------------
+
+    private FlowPane createFilterBar() {
+        serviceFilter.getItems().setAll(ALL_SERVICES);
+        serviceFilter.setValue(ALL_SERVICES);
+        serviceFilter.setOnAction(e -> applyFilters());
+
+        dayFilter.getItems().add(ANY_DAY);
+        dayFilter.getItems().addAll(DAYS);
+        dayFilter.setValue(ANY_DAY);
+        dayFilter.setOnAction(e -> applyFilters());
+
+        fromPicker.setPromptText("From");
+        fromPicker.setPrefWidth(130);
+        fromPicker.setOnAction(e -> applyFilters());
+        toPicker.setPromptText("Until (excl.)");
+        toPicker.setPrefWidth(130);
+        toPicker.setOnAction(e -> applyFilters());
+
+        searchField.setPromptText("Search customer or notes");
+        searchDelay.setOnFinished(e -> applyFilters());
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+
+        Button clearBtn = new Button("Clear");
+        clearBtn.setOnAction(e -> clearFilters());
+
+        exportBtn.setOnAction(e -> exportBookings());
+
+        cancelBtn.setOnAction(e -> cancelSelectedBooking());
+        cancelBtn.disableProperty().bind(table.getSelectionModel().selectedItemProperty().isNull());
+
+        FlowPane bar = new FlowPane(8, 8, serviceFilter, dayFilter, fromPicker, toPicker, searchField, clearBtn, exportBtn, cancelBtn);
+        bar.setAlignment(Pos.CENTER_LEFT);
+        return bar;
+    }
+
+    private void applyFilters() {
+        if (resettingFilters) return;
+
+        ServiceOption service = serviceFilter.getValue();
+        String day = dayFilter.getValue();
+        BookingQuery next = query
+            .withService(service == null ? null : service.id())
+            .withDay(ANY_DAY.equals(day) ? null : day)
+            .withDateRange(fromPicker.getValue(), toPicker.getValue())
+            .withSearch(searchField.getText());
+
+        if (!next.equals(query)) {
+            query = next;
+            reload();
+        }
+    }
+
+    private void clearFilters() {
+        resettingFilters = true;
+        serviceFilter.setValue(ALL_SERVICES);
+        dayFilter.setValue(ANY_DAY);
+        fromPicker.setValue(null);
+        toPicker.setValue(null);
+        searchField.clear();
+        searchDelay.stop();
+        resettingFilters = false;
+        applyFilters();
+    }
+
+    // Services can be added or renamed between visits, so the list is refreshed on each show()
+    private void loadServiceOptions() {
+        loader.load("service-options", () -> ServiceDAO.getServiceNames(companyId), names -> {
+            ServiceOption selected = serviceFilter.getValue();
+            List<ServiceOption> options = new ArrayList<>();
+            options.add(ALL_SERVICES);
+            for (Map.Entry<Integer, String> e : names.entrySet()) options.add(new ServiceOption(e.getKey(), e.getValue()));
+
+            resettingFilters = true;
+            serviceFilter.getItems().setAll(options);
+            serviceFilter.setValue(options.stream()
+                .filter(o -> selected != null && Objects.equals(o.id(), selected.id()))
+                .findFirst().orElse(ALL_SERVICES));
+            resettingFilters = false;
+            applyFilters();
+        }, err -> err.printStackTrace());
+    }
+
+    // ---------------- Export -------------------
+
+    private void exportBookings() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Bookings");
+        chooser.setInitialFileName("bookings-" + LocalDate.now() + ".csv");
+        chooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"),
+            new FileChooser.ExtensionFilter("JSON (*.json)", "*.json"),
+            new FileChooser.ExtensionFilter("Compressed (*.csv.gz, *.json.gz)", "*.csv.gz", "*.json.gz"));
+        File file = chooser.showSaveDialog(root.getScene().getWindow());
+        if (file == null) return;
+
+        BookingQuery q = query; // what the table shows now, filters and sort included
+        exportBtn.setDisable(true);
+        actionLabel.setText("Exporting...");
+
+        loader.load("export",
+            () -> new BookingExporter(dao).export(q, file.toPath(),
+                rows -> Platform.runLater(() -> actionLabel.setText("Exporting... " + rows + " bookings"))),
+            rows -> {
+                exportBtn.setDisable(false);
+                actionLabel.setText("Exported " + rows + " bookings to " + file.getName());
+            },
+            err -> {
+                exportBtn.setDisable(false);
+                err.printStackTrace();
+                actionLabel.setText("Export failed: " + err.getMessage());
+            });
+    }
+
+    // ---------------- Cancel -------------------
+
+    private void cancelSelectedBooking() {
+        Booking booking = table.getSelectionModel().getSelectedItem();
+        if (booking == null) return;
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Cancel Booking");
+        alert.setHeaderText(null);
+        alert.setContentText("Cancel booking #" + booking.getBookingId() + " for " + booking.getCustomerName()
+            + " (" + booking.getServiceName() + ", "
+            + (booking.getAppointmentDate() != null ? booking.getAppointmentDate() + " " : "")
+            + booking.getTimeSlot() + ")? Its place becomes free again.");
+        if (alert.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) return;
+
+        loader.load("cancel",
+            () -> dao.cancelBooking(companyId, booking.getBookingId()),
+            cancelled -> {
+                // Gone either way: cancelled now, or already deleted elsewhere
+                rows.remove(booking);
+                actionLabel.setText(cancelled ? "Cancelled booking #" + booking.getBookingId() : "Booking #" + booking.getBookingId() + " no longer exists");
+                statusLabel.setText(statusText());
+            },
+            err -> {
+                err.printStackTrace();
+                actionLabel.setText("Cancel failed: " + err.getMessage());
+            });
+    }
+
+    // ---------------- Table -------------------
+
+    private TableView<Booking> createTable() {
+        TableView<Booking> t = new TableView<>(rows);
+        t.setPlaceholder(new Label("No bookings to show"));
+
+        TableColumn<Booking, Integer> colId = new TableColumn<>("ID");
+        colId.setPrefWidth(50);
+        colId.setCellValueFactory(new PropertyValueFactory<>("bookingId"));
+
+        colCust = new TableColumn<>("Customer");
+        colCust.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getCustomerName()));
+
+        TableColumn<Booking, String> colService = new TableColumn<>("Service");
+        colService.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getServiceName()));
+
+        TableColumn<Booking, String> colBooked = new TableColumn<>("Booked on");
+        colBooked.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getBookingDate()));
+
+        colAppointment = new TableColumn<>("Appointment");
+        colAppointment.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getAppointmentDate()));
+
+        TableColumn<Booking, String> colSlot = new TableColumn<>("Slot");
+        colSlot.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getTimeSlot()));
+
+        // Columns share the width: ID 5%, Customer 22%, Service 28%, Booked on 15%, Appointment 13%, Slot 17%
+        t.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        colId.setMaxWidth(1f * Integer.MAX_VALUE * 0.05);
+        colCust.setMaxWidth(1f * Integer.MAX_VALUE * 0.22);
+        colService.setMaxWidth(1f * Integer.MAX_VALUE * 0.28);
+        colBooked.setMaxWidth(1f * Integer.MAX_VALUE * 0.15);
+        colAppointment.setMaxWidth(1f * Integer.MAX_VALUE * 0.13);
+        colSlot.setMaxWidth(1f * Integer.MAX_VALUE * 0.17);
+
+        t.getColumns().addAll(List.of(colId, colCust, colService, colBooked, colAppointment, colSlot));
+
+        // Only Customer and Appointment sort, and they sort in SQL: the loaded rows are a prefix of the result
+        colId.setSortable(false);
+        colService.setSortable(false);
+        colBooked.setSortable(false);
+        colSlot.setSortable(false);
+        t.setSortPolicy(tv -> {
+            applySort();
+            return true;
+        });
+
+        // Rows are only created for what is on screen; when one near the end is filled, fetch ahead
+        t.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(Booking item, boolean empty) {
+                super.updateItem(item, empty);
+                if (!empty && getIndex() >= rows.size() - PREFETCH_ROWS) loadNextPage();
+            }
+        });
+        return t;
+    }
+
+    private void applySort() {
+        BookingQuery.Sort sort = BookingQuery.Sort.NEWEST_FIRST;
+        if (!table.getSortOrder().isEmpty()) {
+            TableColumn<Booking, ?> col = table.getSortOrder().get(0);
+            boolean ascending = col.getSortType() == TableColumn.SortType.ASCENDING;
+            if (col == colCust) {
+                sort = ascending ? BookingQuery.Sort.CUSTOMER_A_Z : BookingQuery.Sort.CUSTOMER_Z_A;
+            } else if (col == colAppointment) {
+                sort = ascending ? BookingQuery.Sort.OLDEST_FIRST : BookingQuery.Sort.NEWEST_FIRST;
+            }
+        }
+        if (sort != query.sort()) {
+            query = query.withSort(sort);
+            reload();
+        }
+    }
+}
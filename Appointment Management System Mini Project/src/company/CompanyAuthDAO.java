@@ -6,6 +6,12 @@ import java.sql.*;
 
 public class CompanyAuthDAO {
 
+    // Also read by tools.ExplainCheck
+    public static final String LOGIN_SQL =
+            "SELECT company_id, password_hash FROM companies WHERE username = ?";
+    public static final String HAS_PROFILE_SQL =
+            "SELECT company_id FROM company_profiles WHERE company_id = ?";
+
     // Hash password using SHA-256
     private static String hashPassword(String password) {
         try {
@@ -47,10 +53,8 @@ public class CompanyAuthDAO {
 
     // Login → return company_id or -1 if fail
     public static int login(String username, String password) {
-        String sql = "SELECT company_id, password_hash FROM companies WHERE username = ?";
-
         try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(LOGIN_SQL)) {
 
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
@@ -73,10 +77,8 @@ public class CompanyAuthDAO {
 
     // Check if profile exists
     public static boolean hasProfile(int companyId) {
-        String sql = "SELECT company_id FROM company_profiles WHERE company_id = ?";
-
         try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(HAS_PROFILE_SQL)) {
 
             stmt.setInt(1, companyId);
             ResultSet rs = stmt.executeQuery();
@@ -1,5 +1,6 @@
 package company;
 
+import db.CatalogCache;
 import db.DBHelper;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -30,7 +31,9 @@ public class CompanyProfileDAO {
             ps.setString(13, cp.getWebsite());
             ps.setString(14, cp.getAddress());
 
-            return ps.executeUpdate() > 0;
+            boolean saved = ps.executeUpdate() > 0;
+            if (saved) CatalogCache.catalog().invalidateAll(); // new company in the customer-side lists
+            return saved;
 
         } catch (SQLException e) {
             System.out.println("Error saving company profile: " + e.getMessage());
@@ -1,36 +1,109 @@
 package company;
 
+import db.CatalogCache;
 import db.DBHelper;
+import db.SlotOccupancy;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ServiceDAO {
 
+    // Rows per multi-row INSERT when writing schedules; keeps statements and placeholder counts bounded
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    // Queries with a fixed text; public so tools.ExplainCheck checks the same SQL
+
+    // Uses uk_staff_company_name (company_id, first_name, last_name, role)
+    public static final String FIND_STAFF_SQL =
+            "SELECT staff_id FROM staff WHERE company_id = ? AND first_name = ? AND last_name = ? AND role = ?";
+    public static final String ACTIVE_SERVICES_SQL =
+            "SELECT s.service_id, s.service_name, s.num_customers, s.description, s.is_active, " +
+            "st.first_name, st.last_name, st.role " +
+            "FROM services s " +
+            "JOIN staff st ON s.staff_id = st.staff_id " +
+            "WHERE s.company_id = ?";
+    public static final String SERVICE_BY_ID_SQL =
+            "SELECT s.service_id, s.service_name, s.num_customers, s.description, s.is_active, " +
+            "st.first_name, st.last_name, st.role " +
+            "FROM services s " +
+            "JOIN staff st ON s.staff_id = st.staff_id " +
+            "WHERE s.service_id = ? AND s.company_id = ?";
+    public static final String COMPANY_TIME_SLOTS_SQL =
+            "SELECT sd.service_id, sd.day_abbr, ts.start_time, ts.end_time " +
+            "FROM services s " +
+            "JOIN service_days sd ON sd.service_id = s.service_id " +
+            "JOIN time_slots ts ON sd.service_day_id = ts.service_day_id " +
+            "WHERE s.company_id = ? " +
+            "ORDER BY ts.slot_id";
+    public static final String SERVICE_TIME_SLOTS_SQL =
+            "SELECT sd.day_abbr, ts.start_time, ts.end_time " +
+            "FROM service_days sd " +
+            "JOIN time_slots ts ON sd.service_day_id = ts.service_day_id " +
+            "WHERE sd.service_id = ? " +
+            "ORDER BY ts.slot_id";
+    // Current schedule; days without slots come back with a NULL slot_id
+    public static final String SCHEDULE_SQL =
+            "SELECT sd.service_day_id, sd.day_abbr, ts.slot_id, ts.start_time, ts.end_time " +
+            "FROM service_days sd " +
+            "LEFT JOIN time_slots ts ON ts.service_day_id = sd.service_day_id " +
+            "WHERE sd.service_id = ? " +
+            "ORDER BY ts.slot_id";
+    // The service's slot with slot_id above ? that a booking's day and times match
+    private static final String NEW_SLOT_FOR_BOOKING =
+            "(SELECT MIN(ts.slot_id) FROM service_days sd " +
+            "JOIN time_slots ts ON ts.service_day_id = sd.service_day_id " +
+            "WHERE sd.service_id = b.service_id AND sd.day_abbr = b.day " +
+            "AND CONCAT(ts.start_time, ' - ', ts.end_time) = b.slot_time AND ts.slot_id > ?)";
+    // A slot that comes back after being removed (FK ON DELETE SET NULL cleared its bookings) is linked again.
+    // Only rows that get a slot are touched, so the update count is the number relinked
+    public static final String RELINK_BOOKINGS_SQL =
+            "UPDATE bookings b SET slot_id = " + NEW_SLOT_FOR_BOOKING + " " +
+            "WHERE b.service_id = ? AND b.slot_id IS NULL AND " + NEW_SLOT_FOR_BOOKING + " IS NOT NULL";
+    public static final String IMPORT_CHECKPOINT_SQL =
+            "SELECT records_done FROM service_import_checkpoints WHERE company_id = ? AND source_sha256 = ?";
+    public static final String DISABLE_SERVICE_SQL =
+            "UPDATE services SET is_active = 0 WHERE service_id = ? AND company_id = ?";
+    public static final String SERVICE_NAMES_SQL =
+            "SELECT service_id, service_name FROM services WHERE company_id = ? ORDER BY service_name";
+    public static final String UPDATE_SERVICE_SQL =
+            "UPDATE services SET service_name = ?, num_customers = ?, description = ?, staff_id = ? WHERE service_id = ? AND company_id = ?";
+    public static final String DELETE_TIME_SLOT_SQL = "DELETE FROM time_slots WHERE slot_id = ?";
+    public static final String DELETE_SERVICE_DAY_SQL = "DELETE FROM service_days WHERE service_day_id = ?";
+    public static final String DELETE_SERVICE_SLOTS_SQL =
+            "DELETE FROM time_slots WHERE service_day_id IN (SELECT service_day_id FROM service_days WHERE service_id = ?)";
+    public static final String DELETE_SERVICE_DAYS_SQL = "DELETE FROM service_days WHERE service_id = ?";
+    public static final String DELETE_SERVICE_SQL = "DELETE FROM services WHERE service_id = ? AND company_id = ?";
+    public static final String REACTIVATE_SERVICE_SQL =
+            "UPDATE services SET is_active = 1 WHERE service_id = ? AND company_id = ?";
+    public static final String CLEAR_IMPORT_CHECKPOINT_SQL =
+            "DELETE FROM service_import_checkpoints WHERE company_id = ? AND source_sha256 = ?";
+
     /** Saves a service and returns the generated service_id */
     public static int saveService(ServiceSessionManager.ServiceConfig service, int companyId) throws SQLException {
 
         String insertService = "INSERT INTO services (service_name, num_customers, description, company_id, staff_id) VALUES (?, ?, ?, ?, ?)";
-        String insertServiceDay = "INSERT INTO service_days (service_id, day_abbr) VALUES (?, ?)";
-        String insertTimeSlot = "INSERT INTO time_slots (service_day_id, start_time, end_time) VALUES (?, ?, ?)";
 
         Connection conn = null;
         PreparedStatement psService = null;
-        PreparedStatement psDay = null;
-        PreparedStatement psSlot = null;
         ResultSet rs = null;
+        StaffCache.Pending staff = new StaffCache.Pending(companyId);
 
         try {
             conn = DBHelper.getConnection();
             conn.setAutoCommit(false);
 
             // ✅ Step 1: Find/Create staff properly
-            int staffId = findOrCreateStaff(conn, companyId, service.firstName(), service.lastName(), service.role());
+            int staffId = findOrCreateStaff(conn, staff, service.firstName(), service.lastName(), service.role());
 
             // ✅ Step 2: Insert service
             psService = conn.prepareStatement(insertService, PreparedStatement.RETURN_GENERATED_KEYS);
@@ -46,31 +119,13 @@ public class ServiceDAO {
             if (rs.next()) serviceId = rs.getInt(1);
             else throw new SQLException("Failed to retrieve service_id");
 
-            // ✅ Step 3: Insert service days & slots
-            psDay = conn.prepareStatement(insertServiceDay, PreparedStatement.RETURN_GENERATED_KEYS);
-            psSlot = conn.prepareStatement(insertTimeSlot);
-
-            for (Map.Entry<String, List<ServiceSessionManager.TimeSlot>> entry : service.serviceDays().entrySet()) {
-                psDay.setInt(1, serviceId);
-                psDay.setString(2, entry.getKey());
-                psDay.executeUpdate();
-
-                try (ResultSet rsDay = psDay.getGeneratedKeys()) {
-                    if (rsDay.next()) {
-                        int serviceDayId = rsDay.getInt(1);
-
-                        for (ServiceSessionManager.TimeSlot slot : entry.getValue()) {
-                            psSlot.setInt(1, serviceDayId);
-                            psSlot.setString(2, slot.start());
-                            psSlot.setString(3, slot.end());
-                            psSlot.addBatch();
-                        }
-                        psSlot.executeBatch();
-                    }
-                }
-            }
+            // ✅ Step 3: Insert service days & slots (one statement each, however many days)
+            insertServiceDays(conn, Map.of(serviceId, service.serviceDays().keySet()));
+            insertTimeSlots(conn, Map.of(serviceId, service.serviceDays()));
 
             conn.commit();
+            staff.publish();
+            CatalogCache.catalog().invalidateAll();
             System.out.println("✅ Service saved: " + service.serviceName());
             return serviceId;
 
@@ -79,68 +134,252 @@ public class ServiceDAO {
             throw e;
         } finally {
             DBHelper.close(conn, psService, rs);
-            DBHelper.close(null, psDay, null);
-            DBHelper.close(null, psSlot, null);
         }
     }
 
-    // ✅ Helper function to ensure staff is created if not exists
-    private static int findOrCreateStaff(Connection conn, int companyId, String first, String last, String role) throws SQLException {
-        String find = "SELECT staff_id FROM staff WHERE first_name = ? AND last_name = ? AND role = ?";
-        String insert = "INSERT INTO staff (company_id, first_name, last_name, role) VALUES (?, ?, ?, ?)";
+    /**
+     * Inserts many services with their schedules on the caller's connection, inside the
+     * caller's transaction (ServiceImporter commits once per chunk). Staff are looked up
+     * once per distinct provider, the services go in one batch, and the schedules of all
+     * of them in one statement for the days and one for the slots.
+     * The staff they use are collected in staff, to publish() once the caller has committed.
+     * Returns the new service_ids in the order of the list.
+     */
+    static List<Integer> saveServices(Connection conn, List<ServiceSessionManager.ServiceConfig> services, StaffCache.Pending staff) throws SQLException {
+        if (services.isEmpty()) return List.of();
+
+        String insertService = "INSERT INTO services (service_name, num_customers, description, company_id, staff_id) VALUES (?, ?, ?, ?, ?)";
+        int companyId = staff.companyId();
+
+        // 1. Staff: one lookup per distinct first name / last name / role (the rest hit staff)
+        List<Integer> serviceIds = new ArrayList<>(services.size());
+
+        try (PreparedStatement ps = conn.prepareStatement(insertService, PreparedStatement.RETURN_GENERATED_KEYS)) {
+            for (ServiceSessionManager.ServiceConfig service : services) {
+                int staffId = findOrCreateStaff(conn, staff, service.firstName(), service.lastName(), service.role());
+
+                // 2. Services: batched (multi-row with rewriteBatchedStatements)
+                ps.setString(1, service.serviceName());
+                ps.setInt(2, service.numCustomers());
+                ps.setString(3, service.description());
+                ps.setInt(4, companyId);
+                ps.setInt(5, staffId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                while (rs.next()) serviceIds.add(rs.getInt(1));
+            }
+        }
+        if (serviceIds.size() != services.size()) {
+            throw new SQLException("Expected " + services.size() + " generated service_ids, got " + serviceIds.size());
+        }
+
+        // 3. Schedules of the whole list
+        Map<Integer, Collection<String>> days = new LinkedHashMap<>();
+        Map<Integer, Map<String, List<ServiceSessionManager.TimeSlot>>> slots = new LinkedHashMap<>();
+        for (int i = 0; i < services.size(); i++) {
+            days.put(serviceIds.get(i), services.get(i).serviceDays().keySet());
+            slots.put(serviceIds.get(i), services.get(i).serviceDays());
+        }
+        insertServiceDays(conn, days);
+        insertTimeSlots(conn, slots);
+
+        return serviceIds;
+    }
+
+    /** Inserts service days with multi-row INSERTs of up to MAX_ROWS_PER_STATEMENT rows. */
+    private static void insertServiceDays(Connection conn, Map<Integer, ? extends Collection<String>> daysByService) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Integer, ? extends Collection<String>> service : daysByService.entrySet()) {
+            for (String day : service.getValue()) rows.add(new Object[] {service.getKey(), day});
+        }
+
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Object[]> part = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            String sql = "INSERT INTO service_days (service_id, day_abbr) VALUES " +
+                         String.join(", ", Collections.nCopies(part.size(), "(?, ?)"));
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int i = 1;
+                for (Object[] row : part) {
+                    ps.setInt(i++, (Integer) row[0]);
+                    ps.setString(i++, (String) row[1]);
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Inserts time slots for days that already exist, with INSERT ... SELECT statements
+     * of up to MAX_ROWS_PER_STATEMENT rows. Each slot looks up its service_day_id by the
+     * (service_id, day_abbr) unique key inside the statement, so no generated keys have
+     * to be read back first. Slots get their slot_id in the order given, which is the
+     * order they are shown in.
+     */
+    private static void insertTimeSlots(Connection conn, Map<Integer, ? extends Map<String, List<ServiceSessionManager.TimeSlot>>> slotsByService) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Integer, ? extends Map<String, List<ServiceSessionManager.TimeSlot>>> service : slotsByService.entrySet()) {
+            for (Map.Entry<String, List<ServiceSessionManager.TimeSlot>> day : service.getValue().entrySet()) {
+                for (ServiceSessionManager.TimeSlot slot : day.getValue()) {
+                    rows.add(new Object[] {service.getKey(), day.getKey(), slot.start(), slot.end()});
+                }
+            }
+        }
+
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Object[]> part = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+
+            try (PreparedStatement ps = conn.prepareStatement(insertTimeSlotsSql(part.size()))) {
+                int i = 1;
+                int seq = 0;
+                for (Object[] row : part) {
+                    ps.setInt(i++, seq++);
+                    ps.setInt(i++, (Integer) row[0]);
+                    ps.setString(i++, (String) row[1]);
+                    ps.setString(i++, (String) row[2]);
+                    ps.setString(i++, (String) row[3]);
+                }
 
-        try (PreparedStatement psFind = conn.prepareStatement(find)) {
-            psFind.setString(1, first);
-            psFind.setString(2, last);
-            psFind.setString(3, role);
+                int inserted = ps.executeUpdate();
+                if (inserted != part.size()) {
+                    throw new SQLException("Expected to insert " + part.size() + " time slots, inserted " + inserted);
+                }
+            }
+        }
+    }
 
-            try (ResultSet rs = psFind.executeQuery()) {
-                if (rs.next()) return rs.getInt(1);
+    /**
+     * The insertTimeSlots statement for the given number of slots. Each slot binds
+     * (seq, service_id, day_abbr, start_time, end_time) in that order.
+     */
+    public static String insertTimeSlotsSql(int slots) {
+        String dayId = "(SELECT sd.service_day_id FROM service_days sd WHERE sd.service_id = ? AND sd.day_abbr = ?)";
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < slots; i++) {
+            values.append(i == 0
+                ? "SELECT CAST(? AS SIGNED) AS seq, " + dayId + " AS service_day_id, CAST(? AS CHAR(20)) AS start_time, CAST(? AS CHAR(20)) AS end_time"
+                : " UNION ALL SELECT ?, " + dayId + ", ?, ?");
+        }
+        return "INSERT INTO time_slots (service_day_id, start_time, end_time) " +
+               "SELECT v.service_day_id, v.start_time, v.end_time " +
+               "FROM (" + values + ") v " +
+               "ORDER BY v.seq";
+    }
+
+    /** How far an earlier run of the same import file got for this company (0 if never run). */
+    public static int getImportCheckpoint(int companyId, String sourceSha256) throws SQLException {
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement(IMPORT_CHECKPOINT_SQL)) {
+            ps.setInt(1, companyId);
+            ps.setString(2, sourceSha256);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
             }
         }
+    }
+
+    /** Records import progress on the caller's connection, so it commits together with the chunk it describes. */
+    public static void saveImportCheckpoint(Connection conn, int companyId, String sourceSha256, String fileName, int recordsDone) throws SQLException {
+        String sql = "INSERT INTO service_import_checkpoints (company_id, source_sha256, file_name, records_done) VALUES (?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE file_name = VALUES(file_name), records_done = VALUES(records_done)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, companyId);
+            ps.setString(2, sourceSha256);
+            ps.setString(3, fileName);
+            ps.setInt(4, recordsDone);
+            ps.executeUpdate();
+        }
+    }
 
-        try (PreparedStatement psInsert = conn.prepareStatement(insert, PreparedStatement.RETURN_GENERATED_KEYS)) {
-            psInsert.setInt(1, companyId);
-            psInsert.setString(2, first);
-            psInsert.setString(3, last);
-            psInsert.setString(4, role);
-            psInsert.executeUpdate();
+    /** Forgets an import's progress so the file is read from the start next time. */
+    public static void clearImportCheckpoint(int companyId, String sourceSha256) throws SQLException {
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement(CLEAR_IMPORT_CHECKPOINT_SQL)) {
+            ps.setInt(1, companyId);
+            ps.setString(2, sourceSha256);
+            ps.executeUpdate();
+        }
+    }
 
-            try (ResultSet rs = psInsert.getGeneratedKeys()) {
-                if (rs.next()) return rs.getInt(1);
+    // ✅ Helper function to ensure staff is created if not exists
+    // Checks StaffCache and this transaction's staff first; what it finds goes into staff,
+    // which the caller publishes to StaffCache after commit
+    private static int findOrCreateStaff(Connection conn, StaffCache.Pending staff, String first, String last, String role) throws SQLException {
+        if (role == null) role = ""; // staff.role is NOT NULL DEFAULT '' (V005)
+        int companyId = staff.companyId();
+
+        Integer cached = StaffCache.get(companyId, first, last, role);
+        if (cached == null) cached = staff.get(first, last, role);
+        if (cached != null) return cached;
+
+        // If another session created the same staff member meanwhile, the insert waits for it on the
+        // unique key and then reports that row's id as the generated key. A second plain SELECT would
+        // not do: under REPEATABLE READ it re-reads the snapshot taken by the first one.
+        String insert = "INSERT INTO staff (company_id, first_name, last_name, role) VALUES (?, ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE staff_id = LAST_INSERT_ID(staff_id)";
+
+        int staffId = findStaff(conn, FIND_STAFF_SQL, companyId, first, last, role);
+        if (staffId == 0) {
+            try (PreparedStatement psInsert = conn.prepareStatement(insert, PreparedStatement.RETURN_GENERATED_KEYS)) {
+                psInsert.setInt(1, companyId);
+                psInsert.setString(2, first);
+                psInsert.setString(3, last);
+                psInsert.setString(4, role);
+                psInsert.executeUpdate();
+
+                try (ResultSet keys = psInsert.getGeneratedKeys()) {
+                    if (keys.next()) staffId = keys.getInt(1);
+                }
             }
+            // Drivers that return no key for the duplicate case: a locking read sees the committed row
+            if (staffId == 0) staffId = findStaff(conn, FIND_STAFF_SQL + " FOR UPDATE", companyId, first, last, role);
+            if (staffId == 0) throw new SQLException("Failed to create staff");
         }
 
-        throw new SQLException("Failed to create staff");
+        staff.put(first, last, role, staffId);
+        return staffId;
+    }
+
+    // The staff_id the query finds, or 0
+    private static int findStaff(Connection conn, String sql, int companyId, String first, String last, String role) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, companyId);
+            ps.setString(2, first);
+            ps.setString(3, last);
+            ps.setString(4, role);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
     }
     // ServiceDAO.java (Add this to your existing class)
 
 /** Fetches all active services for a given company, including staff and all time slots. */
 public static List<ServiceSessionManager.ServiceConfig> getActiveServicesByCompanyId(int companyId) throws SQLException {
     List<ServiceSessionManager.ServiceConfig> activeServices = new ArrayList<>();
-    
-    // Query joins services and staff tables
-    String sql = "SELECT " +
-                 "s.service_id, s.service_name, s.num_customers, s.description, s.is_active, " +
-                 "st.first_name, st.last_name, st.role " +
-                 "FROM services s " +
-                 "JOIN staff st ON s.staff_id = st.staff_id " +
-                 "WHERE s.company_id = ?"; // Assuming 'is_active' column
 
     Connection conn = null;
     try {
         conn = DBHelper.getConnection();
         conn.setAutoCommit(false); // Use transaction scope for safety and efficiency
         
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        // All slots of the company in one query, instead of one query per service
+        Map<Integer, Map<String, List<ServiceSessionManager.TimeSlot>>> slotsByService = fetchTimeSlotsForCompany(companyId, conn);
+
+        try (PreparedStatement ps = conn.prepareStatement(ACTIVE_SERVICES_SQL)) {
             ps.setInt(1, companyId);
             try (ResultSet rs = ps.executeQuery()) {
                 
                 while (rs.next()) {
                     int serviceId = rs.getInt("service_id");
                     boolean isActive = rs.getBoolean("is_active");
-                    // Call the helper to fetch the complex nested Map data
-                    Map<String, List<ServiceSessionManager.TimeSlot>> serviceDays = fetchTimeSlotsForService(serviceId, conn);
+                    Map<String, List<ServiceSessionManager.TimeSlot>> serviceDays =
+                        slotsByService.getOrDefault(serviceId, new HashMap<>());
 
                     // Reconstruct the full ServiceConfig object
                     ServiceSessionManager.ServiceConfig service = new ServiceSessionManager.ServiceConfig(
@@ -167,6 +406,51 @@ public static List<ServiceSessionManager.ServiceConfig> getActiveServicesByCompa
         DBHelper.close(conn, null, null);
     }
 }
+/** Fetches one service of a company with its staff and time slots, or null if it doesn't exist. */
+public static ServiceSessionManager.ServiceConfig getServiceById(int serviceId, int companyId) throws SQLException {
+    try (Connection conn = DBHelper.getConnection();
+         PreparedStatement ps = conn.prepareStatement(SERVICE_BY_ID_SQL)) {
+        ps.setInt(1, serviceId);
+        ps.setInt(2, companyId);
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return null;
+            return new ServiceSessionManager.ServiceConfig(
+                serviceId,
+                rs.getString("service_name"),
+                rs.getInt("num_customers"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("role"),
+                rs.getString("description"),
+                rs.getBoolean("is_active"),
+                fetchTimeSlotsForService(serviceId, conn)
+            );
+        }
+    }
+}
+
+/** Fetches the time slots of every service of a company, grouped by service_id then day_abbr. */
+private static Map<Integer, Map<String, List<ServiceSessionManager.TimeSlot>>> fetchTimeSlotsForCompany(int companyId, Connection conn) throws SQLException {
+    Map<Integer, Map<String, List<ServiceSessionManager.TimeSlot>>> slotsByService = new HashMap<>();
+
+    try (PreparedStatement ps = conn.prepareStatement(COMPANY_TIME_SLOTS_SQL)) {
+        ps.setInt(1, companyId);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ServiceSessionManager.TimeSlot slot = new ServiceSessionManager.TimeSlot(
+                    rs.getString("start_time"),
+                    rs.getString("end_time")
+                );
+                slotsByService
+                    .computeIfAbsent(rs.getInt("service_id"), k -> new HashMap<>())
+                    .computeIfAbsent(rs.getString("day_abbr"), k -> new ArrayList<>())
+                    .add(slot);
+            }
+        }
+    }
+    return slotsByService;
+}
+
 // ServiceDAO.java (Add this private helper method)
 
 /** Fetches all time slots for a single service ID. */
@@ -174,13 +458,7 @@ private static Map<String, List<ServiceSessionManager.TimeSlot>> fetchTimeSlotsF
     // Map: day_abbr -> List of TimeSlot objects
     Map<String, List<ServiceSessionManager.TimeSlot>> serviceDays = new HashMap<>();
 
-    // Query joins service_days and time_slots tables
-    String sql = "SELECT sd.day_abbr, ts.start_time, ts.end_time " +
-                 "FROM service_days sd " +
-                 "JOIN time_slots ts ON sd.service_day_id = ts.service_day_id " +
-                 "WHERE sd.service_id = ?";
-    
-    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+    try (PreparedStatement ps = conn.prepareStatement(SERVICE_TIME_SLOTS_SQL)) {
         ps.setInt(1, serviceId);
         try (ResultSet rs = ps.executeQuery()) {
             
@@ -204,25 +482,22 @@ private static Map<String, List<ServiceSessionManager.TimeSlot>> fetchTimeSlotsF
 
 /**
  * Updates an existing service configuration in the database.
- * This operation is wrapped in a transaction (Update, Delete, Insert).
+ *
+ * The schedule is applied as a diff against what is stored: days and slots that did
+ * not change keep their rows (and slot_id, so bookings stay linked), removed ones are
+ * deleted and new ones inserted. An edit that only touches the name or description
+ * writes the services row and nothing else. Everything runs in one transaction.
+ *
+ * Returns how many upcoming slot dates hold more bookings than the service now takes,
+ * after a lower capacity or bookings relinked to a re-added slot. Those bookings are kept.
  */
-public static void updateService(
+public static int updateService(
     ServiceSessionManager.ServiceConfig updatedService, 
     int serviceId, 
     int companyId) throws SQLException 
 {
-    // SQL for main service update
-    String updateServiceSql = "UPDATE services SET service_name = ?, num_customers = ?, description = ?, staff_id = ? WHERE service_id = ? AND company_id = ?";
-    
-    // SQL for clearing old days/slots (Assuming time_slots references service_days)
-    String deleteTimeSlotsSql = "DELETE FROM time_slots WHERE service_day_id IN (SELECT service_day_id FROM service_days WHERE service_id = ?)";
-    String deleteServiceDaysSql = "DELETE FROM service_days WHERE service_id = ?";
-    
-    // SQL for inserting new days/slots (re-using logic from saveService)
-    String insertServiceDay = "INSERT INTO service_days (service_id, day_abbr) VALUES (?, ?)";
-    String insertTimeSlot = "INSERT INTO time_slots (service_day_id, start_time, end_time) VALUES (?, ?, ?)";
-
     Connection conn = null;
+    StaffCache.Pending staff = new StaffCache.Pending(companyId);
 
     try {
         conn = DBHelper.getConnection();
@@ -230,10 +505,11 @@ public static void updateService(
 
         // 1. Find or create staff for the potentially new provider details
         // Re-using the existing helper method
-        int staffId = findOrCreateStaff(conn, companyId, updatedService.firstName(), updatedService.lastName(), updatedService.role());
+        int staffId = findOrCreateStaff(conn, staff, updatedService.firstName(), updatedService.lastName(), updatedService.role());
 
-        // 2. Update main service details
-        try (PreparedStatement psUpdate = conn.prepareStatement(updateServiceSql)) {
+        // 2. Update main service details (this also locks the service row until commit,
+        //    so two edits of the same service can't diff against the same old schedule)
+        try (PreparedStatement psUpdate = conn.prepareStatement(UPDATE_SERVICE_SQL)) {
             psUpdate.setString(1, updatedService.serviceName());
             psUpdate.setInt(2, updatedService.numCustomers());
             psUpdate.setString(3, updatedService.description());
@@ -246,49 +522,113 @@ public static void updateService(
             }
         }
 
-        // 3. Delete old time slots and service days (critical to clear existing schedule)
-        try (PreparedStatement psDeleteSlots = conn.prepareStatement(deleteTimeSlotsSql)) {
-            psDeleteSlots.setInt(1, serviceId);
-            psDeleteSlots.executeUpdate();
-        }
-        
-        try (PreparedStatement psDeleteDays = conn.prepareStatement(deleteServiceDaysSql)) {
-            psDeleteDays.setInt(1, serviceId);
-            psDeleteDays.executeUpdate();
+        // 3. Read the stored schedule
+        Map<String, Integer> storedDayIds = new HashMap<>();
+        int lastStoredSlotId = 0; // slots inserted below get higher ids
+        Map<String, List<StoredSlot>> storedSlots = new HashMap<>();
+        try (PreparedStatement psSchedule = conn.prepareStatement(SCHEDULE_SQL)) {
+            psSchedule.setInt(1, serviceId);
+            try (ResultSet rs = psSchedule.executeQuery()) {
+                while (rs.next()) {
+                    String dayAbbr = rs.getString("day_abbr");
+                    storedDayIds.put(dayAbbr, rs.getInt("service_day_id"));
+                    List<StoredSlot> slots = storedSlots.computeIfAbsent(dayAbbr, k -> new ArrayList<>());
+                    int slotId = rs.getInt("slot_id");
+                    if (!rs.wasNull()) {
+                        slots.add(new StoredSlot(slotId, rs.getString("start_time"), rs.getString("end_time")));
+                        lastStoredSlotId = Math.max(lastStoredSlotId, slotId);
+                    }
+                }
+            }
         }
 
-        // 4. Insert the new service days and time slots
-        try (PreparedStatement psDay = conn.prepareStatement(insertServiceDay, PreparedStatement.RETURN_GENERATED_KEYS);
-             PreparedStatement psSlot = conn.prepareStatement(insertTimeSlot)) 
-        {
-            for (Map.Entry<String, List<ServiceSessionManager.TimeSlot>> entry : updatedService.serviceDays().entrySet()) {
-                String dayAbbr = entry.getKey();
-                List<ServiceSessionManager.TimeSlot> slots = entry.getValue();
-
-                // Insert into service_days
-                psDay.setInt(1, serviceId);
-                psDay.setString(2, dayAbbr);
-                psDay.executeUpdate();
-
-                // Get the generated service_day_id
-                try (ResultSet rsDay = psDay.getGeneratedKeys()) {
-                    if (rsDay.next()) {
-                        int serviceDayId = rsDay.getInt(1);
-
-                        // Insert into time_slots
-                        for (ServiceSessionManager.TimeSlot slot : slots) {
-                            psSlot.setInt(1, serviceDayId);
-                            psSlot.setString(2, slot.start());
-                            psSlot.setString(3, slot.end());
-                            psSlot.addBatch(); // Batch insertion for efficiency
-                        }
+        // 4. Work out the changes
+        Map<String, List<ServiceSessionManager.TimeSlot>> editedDays = updatedService.serviceDays();
+        List<Integer> slotsToDelete = new ArrayList<>();
+        List<Integer> daysToDelete = new ArrayList<>();
+        Map<String, List<ServiceSessionManager.TimeSlot>> slotsToInsert = new LinkedHashMap<>(); // by day_abbr
+        List<String> daysToInsert = new ArrayList<>();
+
+        for (Map.Entry<String, Integer> day : storedDayIds.entrySet()) {
+            List<StoredSlot> stored = storedSlots.get(day.getKey());
+            List<ServiceSessionManager.TimeSlot> edited = editedDays.get(day.getKey());
+
+            if (edited == null) {
+                // Day dropped from the schedule
+                for (StoredSlot slot : stored) slotsToDelete.add(slot.slotId());
+                daysToDelete.add(day.getValue());
+                continue;
+            }
+
+            // Slots are matched on their times; each stored slot can match one edited slot
+            List<StoredSlot> unmatched = new ArrayList<>(stored);
+            List<ServiceSessionManager.TimeSlot> added = new ArrayList<>();
+            for (ServiceSessionManager.TimeSlot slot : edited) {
+                StoredSlot match = null;
+                for (StoredSlot candidate : unmatched) {
+                    if (candidate.start().equals(slot.start()) && candidate.end().equals(slot.end())) {
+                        match = candidate;
+                        break;
                     }
                 }
+                if (match != null) unmatched.remove(match);
+                else added.add(slot);
             }
-            psSlot.executeBatch(); // Execute all batched inserts
+            for (StoredSlot slot : unmatched) slotsToDelete.add(slot.slotId());
+            if (!added.isEmpty()) slotsToInsert.put(day.getKey(), added);
         }
 
+        for (Map.Entry<String, List<ServiceSessionManager.TimeSlot>> day : editedDays.entrySet()) {
+            if (!storedDayIds.containsKey(day.getKey())) {
+                daysToInsert.add(day.getKey());
+                slotsToInsert.put(day.getKey(), day.getValue());
+            }
+        }
+
+        // 5. Deletes: slots first, then the days they belonged to
+        if (!slotsToDelete.isEmpty()) {
+            try (PreparedStatement psDeleteSlot = conn.prepareStatement(DELETE_TIME_SLOT_SQL)) {
+                for (int slotId : slotsToDelete) {
+                    psDeleteSlot.setInt(1, slotId);
+                    psDeleteSlot.addBatch();
+                }
+                psDeleteSlot.executeBatch();
+            }
+        }
+        if (!daysToDelete.isEmpty()) {
+            try (PreparedStatement psDeleteDay = conn.prepareStatement(DELETE_SERVICE_DAY_SQL)) {
+                for (int serviceDayId : daysToDelete) {
+                    psDeleteDay.setInt(1, serviceDayId);
+                    psDeleteDay.addBatch();
+                }
+                psDeleteDay.executeBatch();
+            }
+        }
+
+        // 6. Inserts: one statement for the new days, one for every new slot
+        insertServiceDays(conn, Map.of(serviceId, daysToInsert));
+        if (!slotsToInsert.isEmpty()) {
+            insertTimeSlots(conn, Map.of(serviceId, slotsToInsert));
+
+            // 7. Only the slots just inserted can pick up bookings that lost theirs
+            int relinked;
+            try (PreparedStatement psRelink = conn.prepareStatement(RELINK_BOOKINGS_SQL)) {
+                psRelink.setInt(1, lastStoredSlotId);
+                psRelink.setInt(2, serviceId);
+                psRelink.setInt(3, lastStoredSlotId);
+                relinked = psRelink.executeUpdate();
+            }
+            // Relinked bookings count towards their new slots
+            if (relinked > 0) SlotOccupancy.rebuild(conn, serviceId);
+        }
+
+        // 8. Count what is now over capacity; the UI tells the company
+        int overCapacity = SlotOccupancy.overCapacity(conn, serviceId, LocalDate.now());
+
         conn.commit(); // Commit transaction
+        staff.publish();
+        CatalogCache.catalog().invalidateAll();
+        return overCapacity;
 
     } catch (SQLException e) {
         if (conn != null) {
@@ -300,25 +640,26 @@ public static void updateService(
     }
 }
 
+/** A time_slots row as read by updateService. */
+private record StoredSlot(int slotId, String start, String end) {}
+
 // ServiceDAO.java
 
 /**
  * Disables a service by setting its is_active flag to 0 (false).
  */
 public static void disableService(int serviceId, int companyId) throws SQLException {
-    // Assuming 'is_active' column exists in the 'services' table.
-    String sql = "UPDATE services SET is_active = 0 WHERE service_id = ? AND company_id = ?";
-    
     Connection conn = null;
     try {
         conn = DBHelper.getConnection();
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PreparedStatement ps = conn.prepareStatement(DISABLE_SERVICE_SQL)) {
             ps.setInt(1, serviceId);
             ps.setInt(2, companyId);
             
             // Execute the update
             ps.executeUpdate();
         }
+        CatalogCache.catalog().invalidateAll();
     } finally {
         DBHelper.close(conn, null, null);
     }
@@ -331,11 +672,6 @@ public static void disableService(int serviceId, int companyId) throws SQLExcept
  * This operation is wrapped in a transaction (Delete slots, Delete days, Delete service).
  */
 public static void deleteService(int serviceId, int companyId) throws SQLException {
-    // SQL for clearing old days/slots (in case time_slots references service_days)
-    String deleteTimeSlotsSql = "DELETE FROM time_slots WHERE service_day_id IN (SELECT service_day_id FROM service_days WHERE service_id = ?)";
-    String deleteServiceDaysSql = "DELETE FROM service_days WHERE service_id = ?";
-    String deleteServiceSql = "DELETE FROM services WHERE service_id = ? AND company_id = ?";
-
     Connection conn = null;
 
     try {
@@ -343,19 +679,19 @@ public static void deleteService(int serviceId, int companyId) throws SQLExcepti
         conn.setAutoCommit(false); // Start transaction
 
         // 1. Delete Time Slots
-        try (PreparedStatement psDeleteSlots = conn.prepareStatement(deleteTimeSlotsSql)) {
+        try (PreparedStatement psDeleteSlots = conn.prepareStatement(DELETE_SERVICE_SLOTS_SQL)) {
             psDeleteSlots.setInt(1, serviceId);
             psDeleteSlots.executeUpdate();
         }
         
         // 2. Delete Service Days
-        try (PreparedStatement psDeleteDays = conn.prepareStatement(deleteServiceDaysSql)) {
+        try (PreparedStatement psDeleteDays = conn.prepareStatement(DELETE_SERVICE_DAYS_SQL)) {
             psDeleteDays.setInt(1, serviceId);
             psDeleteDays.executeUpdate();
         }
 
         // 3. Delete Main Service
-        try (PreparedStatement psDeleteService = conn.prepareStatement(deleteServiceSql)) {
+        try (PreparedStatement psDeleteService = conn.prepareStatement(DELETE_SERVICE_SQL)) {
             psDeleteService.setInt(1, serviceId);
             psDeleteService.setInt(2, companyId);
             if (psDeleteService.executeUpdate() == 0) {
@@ -364,6 +700,7 @@ public static void deleteService(int serviceId, int companyId) throws SQLExcepti
         }
 
         conn.commit(); // Commit transaction
+        CatalogCache.catalog().invalidateAll();
 
     } catch (SQLException e) {
         if (conn != null) {
@@ -379,18 +716,33 @@ public static void deleteService(int serviceId, int companyId) throws SQLExcepti
  * Reactivates a service by setting its is_active flag to 1 (true).
  */
 public static void reactivateService(int serviceId, int companyId) throws SQLException {
-    String sql = "UPDATE services SET is_active = 1 WHERE service_id = ? AND company_id = ?";
-    
     Connection conn = null;
     try {
         conn = DBHelper.getConnection();
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PreparedStatement ps = conn.prepareStatement(REACTIVATE_SERVICE_SQL)) {
             ps.setInt(1, serviceId);
             ps.setInt(2, companyId);
             ps.executeUpdate();
         }
+        CatalogCache.catalog().invalidateAll();
     } finally {
         DBHelper.close(conn, null, null);
     }
 }
+
+/** service_id -> service_name for every service of a company (active or not), sorted by name. */
+public static Map<Integer, String> getServiceNames(int companyId) throws SQLException {
+    Map<Integer, String> names = new LinkedHashMap<>();
+
+    try (Connection conn = DBHelper.getConnection();
+         PreparedStatement ps = conn.prepareStatement(SERVICE_NAMES_SQL)) {
+        ps.setInt(1, companyId);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                names.put(rs.getInt("service_id"), rs.getString("service_name"));
+            }
+        }
+    }
+    return names;
 }
+}
\ No newline at end of file
@@ -0,0 +1,434 @@
+package company;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads services from an import file one at a time, so files of any size are parsed
+ * in constant memory.
+ *
+ * CSV (.csv): a header row, then one row per time slot. Consecutive rows with the same
+ * service_name form one service; its other fields come from the first of those rows.
+ *
+ *   service_name,num_customers,first_name,last_name,role,description,day,start_time,end_time
+ *   Yoga,10,Anna,Smith,Instructor,Morning class,mon,09:00,10:00
+ *   Yoga,10,Anna,Smith,Instructor,Morning class,wed,09:00,10:00
+ *
+ * JSON (.json): an array of service objects.
+ *
+ *   [{"serviceName": "Yoga", "numCustomers": 10, "firstName": "Anna", "lastName": "Smith",
+ *     "role": "Instructor", "description": "Morning class",
+ *     "serviceDays": {"mon": [{"start": "09:00", "end": "10:00"}]}}]
+ *
+ * Days are stored lowercased ("Mon" becomes "mon") and times zero-padded ("9:00" becomes
+ * "09:00"), as the service form stores them.
+ */
+abstract class ServiceImportReader implements AutoCloseable {
+
+    /** The nth service of the file (from 1): parsed, or the reason it could not be. */
+    record Entry(int number, String label, ServiceSessionManager.ServiceConfig service, String error) {}
+
+    protected final BufferedReader in;
+    private int count = 0;
+
+    protected ServiceImportReader(Reader in) {
+        this.in = new BufferedReader(in);
+    }
+
+    static ServiceImportReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return new Csv(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        if (name.endsWith(".json")) return new Json(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        throw new IOException("Unsupported import file (expected .csv or .json): " + file.getFileName());
+    }
+
+    /** The next service, or null at the end of the file. Malformed files throw. */
+    abstract Entry next() throws IOException;
+
+    protected Entry parsed(String label, ServiceSessionManager.ServiceConfig service) {
+        return new Entry(++count, label, service, null);
+    }
+
+    protected Entry failed(String label, String error) {
+        return new Entry(++count, label, null, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static String day(String raw) {
+        return raw.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "9:00" -> "09:00", the form's format
+    private static String time(String raw) {
+        String t = raw.trim();
+        return t.matches("\\d:\\d\\d") ? "0" + t : t;
+    }
+
+    // ---------------- CSV -------------------
+
+    private static final class Csv extends ServiceImportReader {
+
+        private static final String[] COLUMNS = {
+            "service_name", "num_customers", "first_name", "last_name", "role", "description", "day", "start_time", "end_time"
+        };
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private List<String> pending; // first row of the next service, already read
+        private int line = 0;        // physical lines read so far
+        private int rowStart = 0;    // line the last row returned by readRow started on
+        private int pendingLine = 0;
+
+        Csv(Reader in) throws IOException {
+            super(in);
+            List<String> header = readRow();
+            if (header == null) throw new IOException("CSV file is empty");
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String column : COLUMNS) {
+                if (!columns.containsKey(column)) throw new IOException("CSV header is missing column '" + column + "'");
+            }
+            pending = readRow();
+            pendingLine = rowStart;
+        }
+
+        @Override
+        Entry next() throws IOException {
+            if (pending == null) return null;
+
+            List<String> first = pending;
+            int firstLine = pendingLine;
+            String name = field(first, "service_name");
+
+            // Collect this service's rows: up to the first row with another name
+            List<List<String>> rows = new ArrayList<>();
+            rows.add(first);
+            while ((pending = readRow()) != null) {
+                pendingLine = rowStart;
+                if (!field(pending, "service_name").equals(name)) break;
+                rows.add(pending);
+            }
+
+            String label = name.isEmpty() ? "line " + firstLine : name;
+            int numCustomers;
+            try {
+                numCustomers = Integer.parseInt(field(first, "num_customers"));
+            } catch (NumberFormatException e) {
+                return failed(label, "line " + firstLine + ": num_customers must be a whole number, got '" + field(first, "num_customers") + "'");
+            }
+
+            Map<String, List<ServiceSessionManager.TimeSlot>> days = new LinkedHashMap<>();
+            for (List<String> row : rows) {
+                days.computeIfAbsent(day(field(row, "day")), k -> new ArrayList<>())
+                    .add(new ServiceSessionManager.TimeSlot(time(field(row, "start_time")), time(field(row, "end_time"))));
+            }
+
+            return parsed(label, new ServiceSessionManager.ServiceConfig(0, name, numCustomers,
+                field(first, "first_name"), field(first, "last_name"), field(first, "role"),
+                field(first, "description"), true, days));
+        }
+
+        private String field(List<String> row, String column) {
+            int i = columns.get(column);
+            return i < row.size() ? row.get(i).trim() : "";
+        }
+
+        /** One CSV record (quoted fields may contain commas, quotes and line breaks); blank lines are skipped. */
+        private List<String> readRow() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            rowStart = line + 1;
+
+            while ((c = in.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r') {
+                    // part of \r\n
+                } else if (c == '\n') {
+                    line++;
+                    if (fields.isEmpty() && field.length() == 0) {
+                        any = false;
+                        rowStart = line + 1;
+                        continue; // blank line
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+
+            if (quoted) throw new IOException("CSV line " + line + ": unterminated quoted field");
+            if (!any && fields.isEmpty() && field.length() == 0) return null;
+            if (c == -1) line++;
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    // ---------------- JSON -------------------
+
+    private static final class Json extends ServiceImportReader {
+
+        private boolean started = false;
+        private boolean finished = false;
+        private long position = 0;
+        private int peeked = -2;
+
+        Json(Reader in) {
+            super(in);
+        }
+
+        @Override
+        Entry next() throws IOException {
+            if (finished) return null;
+            if (!started) {
+                expect('[');
+                started = true;
+                if (peekSkippingSpace() == ']') {
+                    read();
+                    finished = true;
+                    return null;
+                }
+            } else {
+                int c = readSkippingSpace();
+                if (c == ']') {
+                    finished = true;
+                    return null;
+                }
+                if (c != ',') throw error("expected ',' or ']' between services");
+            }
+
+            // Only this element is held in memory
+            Object value = readValue();
+            if (!(value instanceof Map<?, ?> object)) {
+                return failed("service", "expected an object, got " + describe(value));
+            }
+            return toService(object);
+        }
+
+        private Entry toService(Map<?, ?> object) {
+            String name = text(object.get("serviceName"));
+            String label = name.isEmpty() ? "service" : name;
+
+            Object customers = object.get("numCustomers");
+            if (!(customers instanceof Double d) || d != Math.floor(d) || d > Integer.MAX_VALUE) {
+                return failed(label, "numCustomers must be a whole number, got " + describe(customers));
+            }
+
+            Map<String, List<ServiceSessionManager.TimeSlot>> days = new LinkedHashMap<>();
+            Object serviceDays = object.get("serviceDays");
+            if (!(serviceDays instanceof Map<?, ?> dayMap)) {
+                return failed(label, "serviceDays must be an object of day -> slots");
+            }
+            for (Map.Entry<?, ?> day : dayMap.entrySet()) {
+                if (!(day.getValue() instanceof List<?> slots)) {
+                    return failed(label, "slots of '" + day.getKey() + "' must be an array");
+                }
+                List<ServiceSessionManager.TimeSlot> list = days.computeIfAbsent(day((String) day.getKey()), k -> new ArrayList<>());
+                for (Object slot : slots) {
+                    if (!(slot instanceof Map<?, ?> s)) {
+                        return failed(label, "each slot of '" + day.getKey() + "' must be an object with start and end");
+                    }
+                    list.add(new ServiceSessionManager.TimeSlot(time(text(s.get("start"))), time(text(s.get("end")))));
+                }
+            }
+            days.values().removeIf(List::isEmpty); // a day without slots is not offered
+
+            return parsed(label, new ServiceSessionManager.ServiceConfig(0, name, d.intValue(),
+                text(object.get("firstName")), text(object.get("lastName")), text(object.get("role")),
+                text(object.get("description")), true, days));
+        }
+
+        private static String text(Object value) {
+            return value instanceof String s ? s.trim() : "";
+        }
+
+        private static String describe(Object value) {
+            if (value == null) return "null";
+            if (value instanceof String s) return "\"" + s + "\"";
+            if (value instanceof Map) return "an object";
+            if (value instanceof List) return "an array";
+            return String.valueOf(value);
+        }
+
+        // Values: Map (object), List (array), String, Double, Boolean or null
+        private Object readValue() throws IOException {
+            int c = readSkippingSpace();
+            switch (c) {
+                case '{': {
+                    Map<String, Object> object = new LinkedHashMap<>();
+                    if (peekSkippingSpace() == '}') {
+                        read();
+                        return object;
+                    }
+                    do {
+                        if (readSkippingSpace() != '"') throw error("expected a field name");
+                        String key = readString();
+                        expect(':');
+                        object.put(key, readValue());
+                        c = readSkippingSpace();
+                    } while (c == ',');
+                    if (c != '}') throw error("expected ',' or '}' in object");
+                    return object;
+                }
+                case '[': {
+                    List<Object> array = new ArrayList<>();
+                    if (peekSkippingSpace() == ']') {
+                        read();
+                        return array;
+                    }
+                    do {
+                        array.add(readValue());
+                        c = readSkippingSpace();
+                    } while (c == ',');
+                    if (c != ']') throw error("expected ',' or ']' in array");
+                    return array;
+                }
+                case '"':
+                    return readString();
+                case 't':
+                    expectWord("rue");
+                    return Boolean.TRUE;
+                case 'f':
+                    expectWord("alse");
+                    return Boolean.FALSE;
+                case 'n':
+                    expectWord("ull");
+                    return null;
+                case -1:
+                    throw error("unexpected end of file");
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) return readNumber((char) c);
+                    throw error("unexpected character '" + (char) c + "'");
+            }
+        }
+
+        private String readString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c == -1) throw error("unterminated string");
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append((char) c);
+                    continue;
+                }
+                int e = read();
+                switch (e) {
+                    case '"': case '\\': case '/': sb.append((char) e); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u': {
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            int h = read();
+                            if (h == -1) throw error("unterminated string");
+                            hex[i] = (char) h;
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("bad \\u escape");
+                        }
+                        break;
+                    }
+                    default: throw error("bad escape in string");
+                }
+            }
+        }
+
+        private Double readNumber(char first) throws IOException {
+            StringBuilder sb = new StringBuilder().append(first);
+            while (true) {
+                int c = peek();
+                if (c == -1 || "0123456789+-.eE".indexOf(c) < 0) break;
+                sb.append((char) read());
+            }
+            try {
+                return Double.valueOf(sb.toString());
+            } catch (NumberFormatException e) {
+                throw error("bad number '" + sb + "'");
+            }
+        }
+
+        private void expect(char expected) throws IOException {
+            if (readSkippingSpace() != expected) throw error("expected '" + expected + "'");
+        }
+
+        private void expectWord(String rest) throws IOException {
+            for (char ch : rest.toCharArray()) {
+                if (read() != ch) throw error("unexpected literal");
+            }
+        }
+
+        private int readSkippingSpace() throws IOException {
+            int c;
+            do {
+                c = read();
+            } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+            return c;
+        }
+
+        private int peekSkippingSpace() throws IOException {
+            int c = peek();
+            while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                read();
+                c = peek();
+            }
+            return c;
+        }
+
+        private int read() throws IOException {
+            int c = peeked != -2 ? peeked : in.read();
+            peeked = -2;
+            if (c != -1) position++;
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) peeked = in.read();
+            return peeked;
+        }
+
+        private IOException error(String message) {
+            return new IOException("JSON character " + position + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package company;
+
+import db.AsyncLoader;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+
+/**
+ * Import Services tab of the company dashboard: picks a CSV or JSON file and runs
+ * ServiceImporter in the background, showing progress and the services it skipped.
+ * Running the same file again after an interruption continues where it stopped.
+ */
+public class ServiceImportView {
+
+    private final ServiceImporter importer;
+    private final Runnable onImported;
+    private final AsyncLoader loader = new AsyncLoader();
+
+    private final VBox root;
+    private final Label statusLabel = new Label("Choose a .csv or .json file to import.");
+    private final ListView<ServiceImporter.RecordError> errorList = new ListView<>();
+    private final Button chooseBtn = new Button("Choose File...");
+
+    /** onImported runs on the FX thread after each import that added services. */
+    public ServiceImportView(int companyId, Runnable onImported) {
+        this.importer = new ServiceImporter(companyId);
+        this.onImported = onImported;
+
+        Label header = new Label("Import Services");
+        header.setFont(Font.font("Inter", FontWeight.BOLD, 20));
+
+        Label help = new Label(
+            "CSV: header service_name,num_customers,first_name,last_name,role,description,day,start_time,end_time "
+            + "and one row per time slot (rows of the same service follow each other).\n"
+            + "JSON: an array of {serviceName, numCustomers, firstName, lastName, role, description, "
+            + "serviceDays: {\"mon\": [{\"start\": \"09:00\", \"end\": \"10:00\"}]}}.");
+        help.setWrapText(true);
+        help.setStyle("-fx-text-fill: #6b7280;");
+
+        chooseBtn.setOnAction(e -> chooseAndImport());
+        chooseBtn.disableProperty().bind(loader.busyProperty());
+
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setPrefSize(18, 18);
+        spinner.visibleProperty().bind(loader.busyProperty());
+
+        HBox status = new HBox(8, chooseBtn, spinner, statusLabel);
+        status.setAlignment(Pos.CENTER_LEFT);
+
+        errorList.setPlaceholder(new Label("Skipped services will be listed here"));
+        errorList.setPrefHeight(250);
+
+        root = new VBox(10, header, help, status, new Label("Skipped services"), errorList);
+        root.setMaxWidth(Double.MAX_VALUE);
+    }
+
+    public VBox getRoot() {
+        return root;
+    }
+
+    private void chooseAndImport() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Services");
+        chooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Service files (*.csv, *.json)", "*.csv", "*.json"),
+            new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showOpenDialog(root.getScene().getWindow());
+        if (file == null) return;
+
+        errorList.getItems().clear();
+        statusLabel.setText("Importing " + file.getName() + "...");
+
+        loader.load("import",
+            () -> importer.importFile(file.toPath(), progress -> Platform.runLater(() -> statusLabel.setText(
+                "Importing " + file.getName() + ": " + progress.imported() + " imported, "
+                + progress.invalid() + " skipped"
+                + (progress.resumedFrom() > 0 ? " (continuing after " + progress.resumedFrom() + ")" : "") + "..."))),
+            result -> {
+                errorList.getItems().setAll(result.errors());
+                String summary = "Imported " + result.imported() + " services (" + result.slotsImported() + " time slots)";
+                if (result.invalid() > 0) summary += ", skipped " + result.invalid();
+                if (result.resumedFrom() > 0) summary += "; the first " + result.resumedFrom() + " were done by an earlier run";
+                if (result.errors().size() < result.invalid()) summary += ". Showing the first " + result.errors().size() + " problems";
+                statusLabel.setText(summary + ".");
+                if (result.imported() > 0) onImported.run();
+            },
+            err -> {
+                err.printStackTrace();
+                statusLabel.setText("Import stopped: " + err.getMessage() + " Choose the same file again to continue.");
+            });
+    }
+}
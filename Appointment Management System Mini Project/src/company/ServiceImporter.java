@@ -0,0 +1,210 @@
+package company;
+
+import db.CatalogCache;
+import db.DBHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of services from a CSV or JSON file (format: ServiceImportReader), for
+ * onboarding companies with hundreds of services.
+ *
+ * The file is read one service at a time. Valid services are written in chunks, one
+ * transaction per chunk, through ServiceDAO.saveServices. Each chunk's transaction also
+ * stores how far into the file the import got (service_import_checkpoints, keyed by the
+ * file's SHA-256), so if an import stops part-way, running the same file again skips
+ * what was already committed. Invalid services are reported and skipped, not fatal.
+ *
+ * Runs on the calling thread; call it off the FX thread (e.g. through AsyncLoader).
+ */
+public class ServiceImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    // Only the first errors are kept for display; all of them are counted
+    private static final int MAX_REPORTED_ERRORS = 200;
+
+    private static final Set<String> DAYS = Set.of("sun", "mon", "tue", "wed", "thu", "fri", "sat");
+    private static final Pattern TIME = Pattern.compile("([01]\\d|2[0-3]):[0-5]\\d");
+
+    /** Counts so far; resumedFrom is the number of services a previous run already handled. */
+    public record Progress(int servicesRead, int imported, int invalid, int resumedFrom) {}
+
+    /** A service that was not imported, by its position in the file (from 1). */
+    public record RecordError(int number, String service, String message) {
+        @Override
+        public String toString() {
+            return "#" + number + " " + service + ": " + message;
+        }
+    }
+
+    public record Result(int imported, int slotsImported, int invalid, int resumedFrom, List<RecordError> errors) {}
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    private final int companyId;
+    private final int chunkSize;
+
+    public ServiceImporter(int companyId) {
+        this(companyId, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ServiceImporter(int companyId, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be at least 1");
+        this.companyId = companyId;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the file, continuing after the last committed chunk of an earlier run of
+     * the same file. The listener (may be null) is called after every chunk, on this thread.
+     * A database error stops the import; the chunk being written is rolled back and the
+     * next run starts from it.
+     */
+    public Result importFile(Path file, ProgressListener listener) throws IOException, SQLException {
+        String sourceKey = sha256(file);
+        String fileName = file.getFileName().toString();
+        int resumedFrom = ServiceDAO.getImportCheckpoint(companyId, sourceKey);
+
+        List<ServiceSessionManager.ServiceConfig> chunk = new ArrayList<>(chunkSize);
+        List<RecordError> errors = new ArrayList<>();
+        int read = resumedFrom;
+        int imported = 0;
+        int slots = 0;
+        int invalid = 0;
+        int checkpoint = resumedFrom;
+
+        try (ServiceImportReader reader = ServiceImportReader.open(file)) {
+            ServiceImportReader.Entry entry;
+            while ((entry = reader.next()) != null) {
+                if (entry.number() <= resumedFrom) continue; // committed by an earlier run
+
+                read = entry.number();
+                String error = entry.error() != null ? entry.error() : validate(entry.service());
+                if (error != null) {
+                    invalid++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RecordError(entry.number(), entry.label(), error));
+                } else {
+                    chunk.add(entry.service());
+                }
+
+                if (chunk.size() == chunkSize) {
+                    slots += writeChunk(chunk, sourceKey, fileName, read);
+                    imported += chunk.size();
+                    checkpoint = read;
+                    chunk.clear();
+                    if (listener != null) listener.onProgress(new Progress(read, imported, invalid, resumedFrom));
+                }
+            }
+        }
+
+        // Last partial chunk; also moves the checkpoint past trailing invalid services
+        if (!chunk.isEmpty() || read > checkpoint) {
+            slots += writeChunk(chunk, sourceKey, fileName, read);
+            imported += chunk.size();
+            if (listener != null) listener.onProgress(new Progress(read, imported, invalid, resumedFrom));
+        }
+
+        return new Result(imported, slots, invalid, resumedFrom, errors);
+    }
+
+    /** Forgets the progress of this file, so the next import reads it from the start. */
+    public void restart(Path file) throws IOException, SQLException {
+        ServiceDAO.clearImportCheckpoint(companyId, sha256(file));
+    }
+
+    // One transaction: the services of the chunk plus the checkpoint that covers them
+    private int writeChunk(List<ServiceSessionManager.ServiceConfig> chunk, String sourceKey, String fileName, int recordsDone) throws SQLException {
+        Connection conn = null;
+        StaffCache.Pending staff = new StaffCache.Pending(companyId);
+        try {
+            conn = DBHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            ServiceDAO.saveServices(conn, chunk, staff);
+            ServiceDAO.saveImportCheckpoint(conn, companyId, sourceKey, fileName, recordsDone);
+
+            conn.commit();
+            staff.publish();
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
+        } finally {
+            DBHelper.close(conn, null, null);
+        }
+
+        if (!chunk.isEmpty()) CatalogCache.catalog().invalidateAll();
+
+        int slots = 0;
+        for (ServiceSessionManager.ServiceConfig service : chunk) {
+            for (List<ServiceSessionManager.TimeSlot> daySlots : service.serviceDays().values()) slots += daySlots.size();
+        }
+        return slots;
+    }
+
+    /** Same rules as the New Service form, plus the column sizes; returns null if the service is fine. */
+    static String validate(ServiceSessionManager.ServiceConfig s) {
+        if (s.serviceName().isEmpty()) return "service name is required";
+        if (s.serviceName().length() > 100) return "service name is longer than 100 characters";
+        if (s.numCustomers() < 1) return "number of customers must be at least 1";
+        if (s.firstName().isEmpty() || s.lastName().isEmpty() || s.role().isEmpty()) return "provider first name, last name and role are required";
+        if (s.firstName().length() > 50 || s.lastName().length() > 50 || s.role().length() > 50) {
+            return "provider first name, last name and role must be at most 50 characters";
+        }
+        if (s.description().isEmpty()) return "description is required";
+
+        int total = 0;
+        for (Map.Entry<String, List<ServiceSessionManager.TimeSlot>> day : s.serviceDays().entrySet()) {
+            if (!DAYS.contains(day.getKey())) return "unknown day '" + day.getKey() + "' (use sun, mon, tue, wed, thu, fri or sat)";
+
+            Set<String> seen = new HashSet<>();
+            for (ServiceSessionManager.TimeSlot slot : day.getValue()) {
+                if (!TIME.matcher(slot.start()).matches() || !TIME.matcher(slot.end()).matches()) {
+                    return day.getKey() + ": times must be HH:mm, got '" + slot.start() + "' - '" + slot.end() + "'";
+                }
+                if (slot.start().compareTo(slot.end()) >= 0) {
+                    return day.getKey() + ": slot " + slot.start() + " - " + slot.end() + " must end after it starts";
+                }
+                if (!seen.add(slot.start() + "-" + slot.end())) {
+                    return day.getKey() + ": slot " + slot.start() + " - " + slot.end() + " is listed twice";
+                }
+                total++;
+            }
+        }
+        if (total == 0) return "at least one time slot is required";
+        return null;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) digest.update(buffer, 0, n);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+}
@@ -1,7 +1,9 @@
 package company;
 
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -38,11 +40,13 @@ public class ServiceSessionManager {
     // MODIFIED: Replaced providerName with firstName, lastName, and role
     public static record ServiceConfig(int serviceId, String serviceName, int numCustomers, String firstName, String lastName, String role, String description, boolean isActive, Map<String, List<TimeSlot>> serviceDays) {}
 
-    public List<ServiceConfig> sessions;
-
     // --- Global State ---
     private final Map<String, List<TimeSlot>> serviceDaysConfig = new HashMap<>();
-    private final ObservableList<ServiceConfig> activeServices = FXCollections.observableArrayList();
+    // Every service of the company by serviceId; the Active Services cards follow this map
+    private final ObservableMap<Integer, ServiceConfig> servicesById = FXCollections.observableMap(new LinkedHashMap<>());
+    // Read-only live view of servicesById, so no change has to copy the whole list
+    public final Collection<ServiceConfig> sessions = Collections.unmodifiableCollection(servicesById.values());
+    private final Map<Integer, VBox> cardsById = new HashMap<>();
     private String currentSelectedDay = null;
     private int currentSelectedSlotIndex = -1;
 
@@ -51,6 +55,8 @@ public class ServiceSessionManager {
     private VBox dayConfigSection;
     private VBox activeServicesPage;
     private VBox bookingsPage;
+    private BookingsView bookingsView; // created the first time the Bookings tab is opened
+    private ServiceImportView serviceImportView; // created the first time the Import Services tab is opened
     private VBox newServicePage;
     private VBox editServicePage;
     private VBox appContent;
@@ -59,6 +65,7 @@ public class ServiceSessionManager {
     private TextField startTimeField;
     private TextField endTimeField;
     private VBox sessionsSection; // holds rendered cards
+    private Label noServicesLabel; // shown in sessionsSection while it has no cards
     private int companyId;
 
     private TextField serviceNameField;
@@ -132,19 +139,22 @@ Button btnActiveService = new Button("Active Services");
 Button btnBookings = new Button("Bookings");
 Button btnAddService = new Button("New Service");
 Button btnEditService = new Button("Edit Service");
+Button btnImport = new Button("Import Services");
 
 app.styleNavButton(btnActiveService);
 app.styleNavButton(btnBookings);
 app.styleNavButton(btnAddService);
 app.styleNavButton(btnEditService);
+app.styleNavButton(btnImport);
 
 // Default selected button
 app.setSelected(btnActiveService);
 app.unset(btnBookings);
 app.unset(btnAddService);
 app.unset(btnEditService);
+app.unset(btnImport);
 
-menuBar.getChildren().addAll(btnActiveService, btnBookings, btnAddService, btnEditService);
+menuBar.getChildren().addAll(btnActiveService, btnBookings, btnAddService, btnEditService, btnImport);
 
         app.appContent = new VBox(20);
         app.appContent.setPadding(new Insets(20));
@@ -154,13 +164,10 @@ menuBar.getChildren().addAll(btnActiveService, btnBookings, btnAddService, btnEd
         // 1. Fetch data from the database
 List<ServiceConfig> services = loadActiveServices(companyId);
 
-// 2. Update the application's data model
-app.sessions = services;
-
-// 3. Create the fully rendered VBox using the DB data
-VBox sessionsView = app.createSessionsSection(app.sessions);
+// 2. Create the fully rendered VBox using the DB data; this fills the data model too
+VBox sessionsView = app.createSessionsSection(services);
 
-// 4. Set the application's UI fields to reference the rendered view
+// 3. Set the application's UI fields to reference the rendered view
 app.sessionsSection = sessionsView;
 app.activeServicesPage = sessionsView;
 app.activeServicesPage.setPadding(new Insets(10)); // Keep the padding// loads active service cards
@@ -191,6 +198,7 @@ btnActiveService.setOnAction(e -> {
     app.unset(btnBookings);
     app.unset(btnAddService);
     app.unset(btnEditService); // If you have this button
+    app.unset(btnImport);
     app.setSelected(btnActiveService);
     app.appContent.getChildren().setAll(app.sessionsSection);
 });
@@ -200,79 +208,22 @@ btnActiveService.setOnAction(e -> {
     app.unset(btnActiveService);
     app.unset(btnAddService);
     app.unset(btnEditService);
+    app.unset(btnImport);
     app.setSelected(btnBookings);
 
-    // NEW: Log companyId
-    System.out.println("=== DEBUG: Bookings query for companyId = " + companyId + " ===");
-
-    Label bookingsHeader = new Label("Bookings Section");
-    bookingsHeader.setFont(Font.font("Inter", FontWeight.BOLD, 20));
-    TableView<Booking> table = new TableView<>();
-    
-    // ServiceSessionManager.java (Around line 180 equivalent)
-
-    TableColumn<Booking, Integer> colId = new TableColumn<>("ID"); 
-    colId.setPrefWidth(50);
-    colId.setCellValueFactory(new PropertyValueFactory<>("bookingId"));
-
-    TableColumn<Booking, String> colCust = new TableColumn<>("Customer");
-    colCust.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getCustomerName()));
-
-    TableColumn<Booking, String> colService = new TableColumn<>("Service");
-    colService.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getServiceName()));
-
-    TableColumn<Booking, String> colDate = new TableColumn<>("Date");
-    colDate.setCellValueFactory(data -> 
-        new javafx.beans.property.SimpleStringProperty(data.getValue().getBookingDate()));
-
-    TableColumn<Booking, String> colSlot = new TableColumn<>("Slot");
-    colSlot.setCellValueFactory(data ->
-        new javafx.beans.property.SimpleStringProperty(data.getValue().getTimeSlot()));
-
-        // ServiceSessionManager.java: inside btnBookings.setOnAction
-
-// Set the resize policy to ensure columns use all available space
-table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-
-// Calculate the total number of columns (5 in your case: ID, Customer, Service, Date, Slot)
-
-// Give the 'ID' column a fixed, small percentage
-colId.setMaxWidth(1f * Integer.MAX_VALUE * 0.05); // e.g., 5% of width
-
-// Give the main content columns proportional shares of the remaining 95%
-colCust.setMaxWidth(1f * Integer.MAX_VALUE * 0.25); // e.g., 25% of width
-colService.setMaxWidth(1f * Integer.MAX_VALUE * 0.35); // e.g., 35% of width
-colDate.setMaxWidth(1f * Integer.MAX_VALUE * 0.15); // e.g., 15% of width
-colSlot.setMaxWidth(1f * Integer.MAX_VALUE * 0.20); // e.g., 20% of width
-
-// Total percentage should be 100% (5 + 25 + 35 + 15 + 20 = 100)
-    table.getColumns().addAll(colId, colCust, colService, colDate, colSlot);
-
-    VBox.setVgrow(table, Priority.ALWAYS);
-
-    VBox box = new VBox(10);
-    box.setMaxWidth(Double.MAX_VALUE);
-    // Fetch bookings
-    try {
-        BookingDAO dao = new BookingDAO();
-        List<Booking> bookings = dao.getBookingsByCompanyId(companyId);
-        table.getItems().addAll(bookings);
-        
-        // NEW: Log size
-        System.out.println("=== DEBUG: Fetched " + bookings.size() + " bookings ===");
-        
-    } catch (Exception ex) {
-        ex.printStackTrace();
-        box.getChildren().add(new Label("Error loading bookings: " + ex.getMessage()));
+    // Built on first visit and reused afterwards; rows are paged in the background
+    if (app.bookingsView == null) {
+        app.bookingsView = new BookingsView(companyId);
     }
-    box.getChildren().addAll(bookingsHeader, table);
-    app.appContent.getChildren().setAll(box);
+    app.appContent.getChildren().setAll(app.bookingsView.getRoot());
+    app.bookingsView.show();
 });
 
         btnAddService.setOnAction(e -> {
             app.unset(btnActiveService);
             app.unset(btnBookings);
             app.unset(btnEditService);
+            app.unset(btnImport);
             app.setSelected(btnAddService);
 
             app.appContent.getChildren().setAll(app.formContainer);
@@ -282,6 +233,7 @@ colSlot.setMaxWidth(1f * Integer.MAX_VALUE * 0.20); // e.g., 20% of width
             app.unset(btnActiveService);
             app.unset(btnBookings);
             app.unset(btnAddService);
+            app.unset(btnImport);
             app.setSelected(btnEditService);
 
             Label editHeader = new Label("Edit Service Section");
@@ -290,6 +242,20 @@ colSlot.setMaxWidth(1f * Integer.MAX_VALUE * 0.20); // e.g., 20% of width
             app.appContent.getChildren().setAll(editSelectionPage);
         });
 
+        btnImport.setOnAction(e -> {
+            app.unset(btnActiveService);
+            app.unset(btnBookings);
+            app.unset(btnAddService);
+            app.unset(btnEditService);
+            app.setSelected(btnImport);
+
+            // Kept between visits so a running import keeps reporting; new services show up on Active Services
+            if (app.serviceImportView == null) {
+                app.serviceImportView = new ServiceImportView(companyId, app::reloadActiveServicesPage);
+            }
+            app.appContent.getChildren().setAll(app.serviceImportView.getRoot());
+        });
+
         ScrollPane scrollPane = new ScrollPane(new VBox(menuBar, app.appContent));
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background-color: #f3f4f6;");
@@ -752,7 +718,7 @@ btn.setStyle(
     success.setTitle("Success");
     success.setHeaderText(null);
     success.setContentText("Service saved successfully to the database!");
-    reloadActiveServicesPage();
+    refreshService(serviceId);
     success.showAndWait();
 
 } catch (SQLException e) {
@@ -761,10 +727,6 @@ btn.setStyle(
     return;
 }
 
-
-        activeServices.add(0, newSession);
-        renderSessionCard(newSession);
-
         // Hide and reset form: find toggle button in parent header
         VBox parentVBox = (VBox) formContainer.getParent();
         HBox toggleHeader = (HBox) parentVBox.getChildren().get(1);
@@ -908,38 +870,69 @@ btn.setStyle(
     // ServiceSessionManager.java (Add this new helper method)
 
 /**
- * Creates the VBox containing all rendered ServiceCards for the given list of services.
- * This replaces the rendering behavior previously scattered across loadSampleSessions 
- * and renderSessionCard.
+ * Creates the Active Services container and fills it with a card per active service.
+ * The container is kept for the life of the dashboard: later changes go through
+ * servicesById, and only the cards of the services that changed are rebuilt.
  */
 public VBox createSessionsSection(List<ServiceConfig> services) {
-    // 1. FILTERING STEP: Create a new list containing only active services
-    List<ServiceConfig> activeServices = services.stream()
-        .filter(ServiceConfig::isActive) // Keeps only services where isActive is true
-        .collect(Collectors.toList());
-
     VBox sessionsContainer = new VBox(20); // 20 is spacing between cards
     sessionsContainer.setPadding(new Insets(10));
 
-    // Check if there are any active services after filtering
-    if (activeServices.isEmpty()) {
-        Label noServices = new Label("No active services are currently configured.");
-        noServices.setFont(Font.font("Inter", FontWeight.BOLD, 18));
-        sessionsContainer.getChildren().add(noServices);
-        return sessionsContainer;
-    }
+    noServicesLabel = new Label("No active services are currently configured.");
+    noServicesLabel.setFont(Font.font("Inter", FontWeight.BOLD, 18));
+    sessionsContainer.getChildren().add(noServicesLabel);
+    this.sessionsSection = sessionsContainer;
 
-    // 2. ITERATE: Loop through the FILTERED list in reverse order
-    for (int i = activeServices.size() - 1; i >= 0; i--) {
-        ServiceConfig service = activeServices.get(i);
-        
-        // Call your existing card rendering method
-        VBox card = renderSessionCard(service); 
-        sessionsContainer.getChildren().add(card); 
+    servicesById.addListener((MapChangeListener<Integer, ServiceConfig>) this::onServiceChanged);
+
+    // Each put lands on top, so the newest service ends up first
+    servicesById.clear();
+    for (ServiceConfig service : services) {
+        servicesById.put(service.serviceId(), service);
     }
-    
     return sessionsContainer;
 }
+
+/** Patches the card of one service: replaced in place, added on top, or removed when it is gone or inactive. */
+private void onServiceChanged(MapChangeListener.Change<? extends Integer, ? extends ServiceConfig> change) {
+    List<Node> children = sessionsSection.getChildren();
+    int serviceId = change.getKey();
+
+    VBox oldCard = cardsById.remove(serviceId);
+    int index = oldCard == null ? -1 : children.indexOf(oldCard);
+    if (oldCard != null) children.remove(oldCard);
+
+    ServiceConfig service = change.wasAdded() ? change.getValueAdded() : null;
+    if (service != null && service.isActive()) {
+        VBox card = renderSessionCard(service);
+        cardsById.put(serviceId, card);
+        // Index 0 is the placeholder label
+        children.add(index >= 0 ? index : 1, card);
+    }
+
+    boolean empty = cardsById.isEmpty();
+    noServicesLabel.setVisible(empty);
+    noServicesLabel.setManaged(empty);
+}
+
+/**
+ * Re-reads a single service after it was saved, edited, disabled or reactivated and
+ * patches its card. A service that no longer exists is dropped.
+ */
+private void refreshService(int serviceId) {
+    try {
+        ServiceConfig latest = ServiceDAO.getServiceById(serviceId, this.companyId);
+        if (latest == null) {
+            servicesById.remove(serviceId);
+        } else {
+            servicesById.put(serviceId, latest);
+        }
+    } catch (SQLException e) {
+        e.printStackTrace();
+        // Fall back to reading everything rather than leave a stale card
+        reloadActiveServicesPage();
+    }
+}
     // ServiceSessionManager.java (Add this static method)
 
 /** Loads active services from the DB using the ServiceDAO. */
@@ -958,31 +951,22 @@ private static List<ServiceConfig> loadActiveServices(int companyId) {
 // ServiceSessionManager.java
 
 /**
- * Fetches the latest service data from the database and updates the UI.
- * This should be called after adding, editing, or deleting a service.
+ * Re-reads every service of the company and brings servicesById in line with it.
+ * Only services whose data differs get a new card. Mutations made on this screen use
+ * refreshService instead; this is for a full resync.
  */
 public void reloadActiveServicesPage() {
     // 1. Fetch the latest data from the database
     List<ServiceConfig> latestServices = loadActiveServices(this.companyId);
 
-    // 2. Update the application's main state (sessions)
-    this.sessions = latestServices;
-
-    // 3. Create a brand new, fully rendered VBox of service cards
-    VBox newSessionsSection = createSessionsSection(this.sessions);
-
-    // 4. Update the global UI reference
-    // This is vital: it ensures that when you click 'Active Services', 
-    // you see the latest data.
-    this.sessionsSection = newSessionsSection; 
-    
-    // Optional: If you are currently viewing the Active Services page, 
-    // update the actual scene content immediately.
-    // Assuming 'appContent' is the container where sections are displayed.
-    // If you don't have access to 'appContent' here, you must ensure the 
-    // button action that switches to 'Active Services' uses this.sessionsSection.
-    // (This part depends on your exact navigation setup, but this.sessionsSection 
-    // is the key element being updated).
+    // 2. Drop services that no longer exist, then put the new and changed ones
+    Set<Integer> latestIds = latestServices.stream().map(ServiceConfig::serviceId).collect(Collectors.toSet());
+    servicesById.keySet().retainAll(latestIds);
+    for (ServiceConfig service : latestServices) {
+        if (!service.equals(servicesById.get(service.serviceId()))) {
+            servicesById.put(service.serviceId(), service);
+        }
+    }
 }
 
 /**
@@ -996,7 +980,6 @@ private VBox createEditServiceSelectionPage() {
     editHeader.setFont(Font.font("Inter", FontWeight.BOLD, 20));
     selectionContainer.getChildren().add(editHeader);
 
-    // Assuming 'this.sessions' is a class member holding List<ServiceConfig>
     if (this.sessions == null || this.sessions.isEmpty()) {
         selectionContainer.getChildren().add(new Label("No active services to edit."));
         return selectionContainer;
@@ -1192,12 +1175,17 @@ private void updateService(ServiceConfig originalService, TextField serviceNameF
     try {
         // !!! ASSUMPTION: ServiceDAO.updateService(ServiceConfig updated, int originalId, int companyId) is implemented
         // Since we don't know the ID, we rely on the DAO to find it using originalService
-        ServiceDAO.updateService(updatedSession, originalService.serviceId(), this.companyId); 
+        int overCapacity = ServiceDAO.updateService(updatedSession, originalService.serviceId(), this.companyId);
 
         // 5. Success actions
-        reloadActiveServicesPage(); // Refreshes the active services list
+        refreshService(originalService.serviceId()); // Rebuilds just this service's card
 
-        showAlert("Success", "Service updated successfully!");
+        if (overCapacity > 0) {
+            showAlert("Service Updated", "Service updated. " + overCapacity + " upcoming time slot(s) now hold more bookings than "
+                    + numCustomers + " customers; those bookings were kept.");
+        } else {
+            showAlert("Success", "Service updated successfully!");
+        }
 
     } catch (Exception ex) {
         ex.printStackTrace();
@@ -1238,8 +1226,8 @@ private void disableService(ServiceConfig service) {
             
             showAlert("Success", "Service '" + service.serviceName() + "' has been successfully disabled.");
 
-            // Reload the UI to reflect the change
-            reloadActiveServicesPage(); 
+            // Takes its card off the Active Services page
+            refreshService(service.serviceId());
 
             // Re-render the selection page to show the updated list
             VBox newEditSelectionPage = createEditServiceSelectionPage();
@@ -1276,8 +1264,8 @@ private void deleteService(ServiceConfig service) {
             
             showAlert("Success", "Service '" + service.serviceName() + "' has been PERMANENTLY deleted.");
 
-            // Reload the UI to reflect the change
-            reloadActiveServicesPage(); 
+            // Nothing left to fetch: drop it from the model and its card goes with it
+            servicesById.remove(service.serviceId());
 
             // Re-render the selection page to show the updated list
             VBox newEditSelectionPage = createEditServiceSelectionPage();
@@ -1299,8 +1287,8 @@ private void reactivateService(ServiceConfig service) {
         ServiceDAO.reactivateService(service.serviceId(), this.companyId); 
         showAlert("Success", "Service '" + service.serviceName() + "' has been successfully REACTIVATED.");
         
-        // Refresh the page
-        reloadActiveServicesPage(); 
+        // Puts its card back on the Active Services page
+        refreshService(service.serviceId());
         VBox newEditSelectionPage = createEditServiceSelectionPage();
         if (this.appContent != null) {
             this.appContent.getChildren().setAll(newEditSelectionPage);
@@ -0,0 +1,71 @@
+package company;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * staff_id by (first name, last name, role), kept per company, for ServiceDAO.findOrCreateStaff.
+ *
+ * Staff rows are only ever inserted by findOrCreateStaff and never renamed, so a cached id
+ * stays right for as long as the row exists. Ids found inside a transaction are collected
+ * in a Pending and only published once that transaction has committed, so a rolled-back
+ * insert never reaches the cache, and other threads never see a row they can't read yet.
+ *
+ * The least recently used company is dropped once MAX_COMPANIES are cached.
+ */
+final class StaffCache {
+
+    private static final int MAX_COMPANIES = 64;
+
+    // accessOrder = true: iteration starts at the least recently used company
+    private static final LinkedHashMap<Integer, Map<List<String>, Integer>> byCompany =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Map<List<String>, Integer>> eldest) {
+                return size() > MAX_COMPANIES;
+            }
+        };
+
+    private StaffCache() {}
+
+    /** The cached staff_id, or null. */
+    static synchronized Integer get(int companyId, String first, String last, String role) {
+        Map<List<String>, Integer> staff = byCompany.get(companyId);
+        return staff == null ? null : staff.get(List.of(first, last, role));
+    }
+
+    private static synchronized void putAll(int companyId, Map<List<String>, Integer> staff) {
+        if (staff.isEmpty()) return;
+        byCompany.computeIfAbsent(companyId, id -> new HashMap<>()).putAll(staff);
+    }
+
+    /** The staff_ids one transaction of one company found or created; publish() once it has committed. */
+    static final class Pending {
+        private final int companyId;
+        private final Map<List<String>, Integer> staff = new HashMap<>();
+
+        Pending(int companyId) {
+            this.companyId = companyId;
+        }
+
+        int companyId() {
+            return companyId;
+        }
+
+        /** The id found earlier in this transaction, or null. */
+        Integer get(String first, String last, String role) {
+            return staff.get(List.of(first, last, role));
+        }
+
+        void put(String first, String last, String role, int staffId) {
+            staff.put(List.of(first, last, role), staffId);
+        }
+
+        /** Adds everything collected to the cache; call after commit only. */
+        void publish() {
+            putAll(companyId, staff);
+        }
+    }
+}
@@ -9,17 +9,41 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.util.StringConverter;
+
+import db.AsyncLoader;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class AppointmentBooking {
 
     private ComboBox<String> companyCombo;
-    private ComboBox<String> serviceCombo;
-    private ComboBox<String> dayCombo;
+    private ComboBox<ServiceOption> serviceCombo;
+    private ComboBox<LocalDate> dateCombo;
     private FlowPane slotsPane;
     private VBox slotsSection, formVBox, serviceDetailsBox, companyDetailsBox;
     private Button submitBtn;
     private String selectedSlotTime;
+    private int selectedSlotId;
     private AppointmentDAO appointmentDAO = new AppointmentDAO();
+    // Slots of the selected service for each date of the booking window, loaded once per service selection
+    private Map<LocalDate, List<SlotAvailability>> dateSlots = new LinkedHashMap<>();
+    // Every DAO call below runs in the background; see db.AsyncLoader
+    private final AsyncLoader loader = new AsyncLoader();
+    private ProgressIndicator loadingIndicator;
+
+    private static final DateTimeFormatter DATE_LABEL = DateTimeFormatter.ofPattern("EEE d MMM yyyy", Locale.ENGLISH);
+
+    /** Service details and its slots by date, fetched together when a service is picked. */
+    private record ServiceSelection(Service details, Map<LocalDate, List<SlotAvailability>> slots) {}
+
+    /** Outcome of the submit button; slots is the refreshed slot grid. */
+    private record SubmitResult(BookingResult result, Map<LocalDate, List<SlotAvailability>> slots) {}
 
     // Service fields
     Label lblServiceName, lblProvider, lblCustomers, lblDescription;
@@ -41,9 +65,14 @@ public class AppointmentBooking {
         Label title = new Label("Book Your Appointment");
         title.setFont(Font.font("Inter", FontWeight.BOLD, 26));
 
-        Label sub = new Label("Select company → service → day → slot → fill details");
+        Label sub = new Label("Select company → service → date → slot → fill details");
+
+        // Spinner shown while any lookup is still running
+        app.loadingIndicator = new ProgressIndicator();
+        app.loadingIndicator.setPrefSize(24, 24);
+        app.loadingIndicator.visibleProperty().bind(app.loader.busyProperty());
 
-        header.getChildren().addAll(title, sub);
+        header.getChildren().addAll(title, sub, app.loadingIndicator);
         root.setTop(header);
 
         VBox mainContent = new VBox(25);
@@ -103,6 +132,10 @@ public class AppointmentBooking {
     private void onCompanySelected() {
         String company = companyCombo.getValue();
 
+        // Anything still loading for the previous company is no longer wanted
+        loader.cancel("service");
+        loader.cancel("company");
+
         // Show service selection
         serviceCombo.setDisable(false);
         serviceCombo.setValue(null);
@@ -124,24 +157,52 @@ public class AppointmentBooking {
         serviceCombo.setDisable(true);
         serviceCombo.setOnAction(e -> onServiceSelected());
 
-        dayCombo = new ComboBox<>();
-        dayCombo.setPromptText("Select Day");
-        dayCombo.setPrefWidth(Double.MAX_VALUE);
-        dayCombo.setOnAction(e -> onDaySelected());
+        dateCombo = new ComboBox<>();
+        dateCombo.setPromptText("Select Date");
+        dateCombo.setPrefWidth(Double.MAX_VALUE);
+        dateCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(LocalDate date) { return date == null ? "" : DATE_LABEL.format(date); }
 
-        box.getChildren().addAll(new Label("Service:"), serviceCombo, new Label("Day:"), dayCombo);
+            @Override
+            public LocalDate fromString(String text) { return null; } // not editable
+        });
+        dateCombo.setOnAction(e -> onDateSelected());
+
+        box.getChildren().addAll(new Label("Service:"), serviceCombo, new Label("Date:"), dateCombo);
         return box;
     }
 
     private void onServiceSelected() {
-    String service = serviceCombo.getValue();
+    ServiceOption service = serviceCombo.getValue();
 
-    dayCombo.setValue(null); 
-    dayCombo.setDisable(false);
+    dateCombo.setValue(null);
+    dateCombo.setDisable(false);
     slotsSection.setVisible(false);
     formVBox.setVisible(false);
+    // A slot picked under the previous service must never be submitted under this one
+    selectedSlotTime = null;
+    selectedSlotId = 0;
+
+    loader.cancel("company");
+    if (service == null) {
+        loader.cancel("service");
+        serviceDetailsBox.setVisible(false);
+        return;
+    }
+
+    dateCombo.setPromptText("Loading dates...");
+    dateCombo.setDisable(true);
 
-    customer.Service serviceDetails = appointmentDAO.getServiceDetails(service);
+    // One query for the whole booking window instead of getSlots + isSlotAvailable per slot
+    loader.load("service",
+        () -> new ServiceSelection(appointmentDAO.getServiceDetails(service.getServiceId()), loadBookingWindow(service.getServiceId())),
+        this::showServiceSelection,
+        this::showLoadError);
+}
+
+    private void showServiceSelection(ServiceSelection selection) {
+    customer.Service serviceDetails = selection.details();
     if (serviceDetails != null) {
         lblServiceName.setText("Service: " + serviceDetails.getServiceName());
         lblProvider.setText("Provider: " + serviceDetails.getProviderName());
@@ -151,29 +212,35 @@ public class AppointmentBooking {
 
     serviceDetailsBox.setVisible(true);
 
-    ObservableList<String> availableDays = FXCollections.observableArrayList();
-    String[] allPossibleDays = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"}; // Use all days for a comprehensive check
-
-    for (String day : allPossibleDays) {
-        // A day is "available" if the service offers at least one slot 
-        // AND that slot is not yet fully booked.
-        for (String slot : appointmentDAO.getSlots(service, day)) {
-            if (appointmentDAO.isSlotAvailable(service, day, slot)) {
-                availableDays.add(day);
-                break; // Found one available slot, so the day is available, move to the next day
-            }
+    ObservableList<LocalDate> availableDates = FXCollections.observableArrayList();
+
+    dateSlots = selection.slots();
+
+    for (Map.Entry<LocalDate, List<SlotAvailability>> date : dateSlots.entrySet()) {
+        // A date is "available" if the service offers at least one slot that day
+        // AND that slot is not yet fully booked on that date.
+        if (date.getValue().stream().anyMatch(SlotAvailability::isAvailable)) {
+            availableDates.add(date.getKey());
         }
     }
 
-    dayCombo.setItems(availableDays);
-    
-    // Optional: Disable dayCombo if no days are available
-    if (availableDays.isEmpty()) {
-        dayCombo.setPromptText("No available days for this service");
-        dayCombo.setDisable(true);
+    dateCombo.setItems(availableDates);
+    dateCombo.setPromptText("Select Date");
+    dateCombo.setDisable(false);
+
+    // Optional: Disable dateCombo if no dates are available
+    if (availableDates.isEmpty()) {
+        dateCombo.setPromptText("No available dates in the next " + AppointmentDAO.bookingWindowDays() + " days");
+        dateCombo.setDisable(true);
     }
 }
 
+    // Today and the following booking.windowDays - 1 days
+    private Map<LocalDate, List<SlotAvailability>> loadBookingWindow(int serviceId) {
+        LocalDate today = LocalDate.now();
+        return appointmentDAO.getSlotsByDate(serviceId, today, today.plusDays(AppointmentDAO.bookingWindowDays()));
+    }
+
 
     // ---------------- Service Details -------------------
 
@@ -207,25 +274,24 @@ public class AppointmentBooking {
         return box;
     }
 
-    private void onDaySelected() {
+    private void onDateSelected() {
     slotsPane.getChildren().clear();
     formVBox.setVisible(false);
 
-    String company = companyCombo.getValue();
-    String service = serviceCombo.getValue();
-    String day = dayCombo.getValue();
+    LocalDate date = dateCombo.getValue();
 
     slotsPane.getChildren().clear();
-    for(String slot : appointmentDAO.getSlots(service, day)) {
+    for(SlotAvailability slotInfo : dateSlots.getOrDefault(date, List.of())) {
+        String slot = slotInfo.getSlot();
         Button btn = new Button(slot);
         
         // ✅ If slot full, disable + mark
-        if (!appointmentDAO.isSlotAvailable(service, day, slot)) {
+        if (!slotInfo.isAvailable()) {
             btn.setDisable(true);
             btn.setStyle("-fx-background-color:#ffcccc; -fx-text-fill:#333;");
             btn.setText(slot + " (Full)");
         } else {
-            btn.setOnAction(e -> selectSlot(slot));
+            btn.setOnAction(e -> selectSlot(slotInfo));
         }
         slotsPane.getChildren().add(btn);
     }
@@ -233,17 +299,19 @@ public class AppointmentBooking {
 }
 
 
-    private void selectSlot(String slot) {
-    String service = serviceCombo.getValue();
-    String day = dayCombo.getValue();
-
-    selectedSlotTime = slot;
+    private void selectSlot(SlotAvailability slot) {
+    selectedSlotTime = slot.getSlot();
+    selectedSlotId = slot.getSlotId();
     formVBox.setVisible(true);
     companyDetailsBox.setVisible(true);
     submitBtn.setDisable(false);
 
     String company = companyCombo.getValue();
-    Company companyData = appointmentDAO.getCompanyDetails(company);
+    loader.load("company", () -> appointmentDAO.getCompanyDetails(company), this::showCompanyDetails, this::showLoadError);
+}
+
+    private void showCompanyDetails(Company companyData) {
+    if (companyData == null) return;
 
     lblOwner.setText("Owner: " + companyData.getOwnerName());
     lblCompany.setText("Company: " + companyData.getCompanyName());
@@ -281,8 +349,8 @@ public class AppointmentBooking {
         
         submitBtn.setOnAction(e -> {
             String company = companyCombo.getValue();
-            String service = serviceCombo.getValue();
-            String day = dayCombo.getValue();
+            ServiceOption service = serviceCombo.getValue();
+            LocalDate date = dateCombo.getValue();
             String slot = selectedSlotTime;
 
             TextField nameField = (TextField) ((GridPane) formVBox.getChildren().get(0)).getChildren().get(1);
@@ -290,30 +358,47 @@ public class AppointmentBooking {
             TextField phoneField = (TextField) ((GridPane) formVBox.getChildren().get(0)).getChildren().get(5);
             TextArea notesArea = (TextArea) ((GridPane) formVBox.getChildren().get(0)).getChildren().get(7);
 
-            if (!appointmentDAO.isSlotAvailable(service, day, slot)) {
-                new Alert(Alert.AlertType.WARNING, "❌ Slot is already full! Please choose another slot.").show();
-                return;
-            }
-
             Booking booking = new Booking(
-                company, service, day, slot,
+                selectedSlotId, date, company, service.getServiceName(), slot,
                 nameField.getText(),
                 phoneField.getText(),
                 emailField.getText(),
                 notesArea.getText()
             );
 
-            int companyId = appointmentDAO.getCompanyId(company);
-            boolean saved = appointmentDAO.saveBooking(booking, companyId);
-
-            if(saved) {
-                new Alert(Alert.AlertType.INFORMATION, "✅ Appointment Saved Successfully!").show();
-                onDaySelected(); 
-                formVBox.setVisible(false);                 companyDetailsBox.setVisible(false); // Hide the company details
-                selectedSlotTime = null;
-            } else {
-                new Alert(Alert.AlertType.ERROR, "❌ Failed to save booking!").show();
-            }
+            submitBtn.setDisable(true);
+            loader.load("submit", () -> {
+                // Capacity is checked and the row inserted in one locked transaction
+                BookingResult result = appointmentDAO.reserveBooking(booking);
+                return new SubmitResult(result, loadBookingWindow(service.getServiceId()));
+            }, outcome -> {
+                submitBtn.setDisable(false);
+                // The reservation itself is reported either way, but if another company or service
+                // was picked meanwhile, its own load owns the slot list and must not be overwritten
+                boolean stillSelected = serviceCombo.getValue() == service;
+                if (stillSelected) {
+                    dateSlots = outcome.slots();
+                    if (outcome.result() != BookingResult.FAILED) onDateSelected(); // drop the slot just taken or lost
+                }
+                switch (outcome.result()) {
+                    case BOOKED -> {
+                        new Alert(Alert.AlertType.INFORMATION, "✅ Appointment Saved Successfully!").show();
+                        if (stillSelected) {
+                            formVBox.setVisible(false);                 companyDetailsBox.setVisible(false); // Hide the company details
+                            selectedSlotTime = null;
+                            selectedSlotId = 0;
+                        }
+                    }
+                    case SLOT_FULL -> new Alert(Alert.AlertType.WARNING, "❌ Slot is already full! Please choose another slot.").show();
+                    case SLOT_NOT_FOUND -> new Alert(Alert.AlertType.WARNING, "❌ This slot is no longer offered. Please choose another slot.").show();
+                    case WRONG_COMPANY -> new Alert(Alert.AlertType.WARNING, "❌ This slot belongs to another company. Please choose the service again.").show();
+                    case INVALID_DATE -> new Alert(Alert.AlertType.WARNING, "❌ This slot can't be booked on that date. Please choose another date.").show();
+                    default -> new Alert(Alert.AlertType.ERROR, "❌ Failed to save booking!").show();
+                }
+            }, err -> {
+                submitBtn.setDisable(false);
+                showLoadError(err);
+            });
         });
 
         box.getChildren().addAll(form, submitBtn);
@@ -349,11 +434,24 @@ public class AppointmentBooking {
     // -------------- Dummy Data Loader -----------------
 
     private void loadDummyData() {
-    companyCombo.setItems(appointmentDAO.getCompanies());
+    companyCombo.setPromptText("Loading companies...");
+    loader.load("companies", appointmentDAO::getCompanies, companies -> {
+        companyCombo.setItems(companies);
+        companyCombo.setPromptText("Select Company");
+    }, this::showLoadError);
 }
 
     private void loadServicesForCompany(String company) {
-    serviceCombo.setItems(appointmentDAO.getServicesByCompany(company));
+    serviceCombo.setPromptText("Loading services...");
+    loader.load("services", () -> appointmentDAO.getServicesByCompany(company), services -> {
+        serviceCombo.setItems(services);
+        serviceCombo.setPromptText("Select Service");
+    }, this::showLoadError);
+}
+
+    private void showLoadError(Throwable err) {
+    err.printStackTrace();
+    new Alert(Alert.AlertType.ERROR, "❌ Could not load data: " + err.getMessage()).show();
 }
 
 }
\ No newline at end of file
@@ -1,76 +1,148 @@
 package customer;
 
+import db.CatalogCache;
+import db.DBConfig;
 import db.DBHelper;
+import db.SlotOccupancy;
 
 import java.sql.*;
+import java.sql.Date;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class AppointmentDAO {
 
+    // The SQL is public so tools.ExplainCheck can EXPLAIN exactly what runs here
+    public static final String COMPANIES_SQL =
+            "SELECT company_name FROM company_profiles";
+    public static final String SERVICES_BY_COMPANY_SQL =
+            "SELECT s.service_id, s.service_name FROM services s " +
+            "JOIN company_profiles c ON s.company_id = c.company_id " +
+            "WHERE c.company_name = ?";
+    public static final String SERVICE_DETAILS_SQL =
+            "SELECT s.service_name, CONCAT(st.first_name, ' ', st.last_name) AS provider_name, " +
+            "s.num_customers, s.description " +
+            "FROM services s " +
+            "JOIN staff st ON s.staff_id = st.staff_id " +
+            "WHERE s.service_id = ?";
+    public static final String COMPANY_DETAILS_SQL =
+            "SELECT * FROM company_profiles WHERE company_name = ?";
+    public static final String SLOTS_SQL =
+            "SELECT ts.start_time, ts.end_time FROM time_slots ts " +
+            "JOIN service_days sd ON ts.service_day_id = sd.service_day_id " +
+            "JOIN services s ON sd.service_id = s.service_id " +
+            "JOIN staff st ON s.staff_id = st.staff_id " +
+            "WHERE s.service_id = ? AND sd.day_abbr = ?";
+    // One row per slot, or one per slot and booked date in the window; counters outside it are not read
+    public static final String SLOTS_BY_DATE_SQL =
+            "SELECT ts.slot_id, sd.day_abbr, ts.start_time, ts.end_time, s.num_customers, " +
+            "o.appointment_date, o.booked " +
+            "FROM services s " +
+            "JOIN service_days sd ON sd.service_id = s.service_id " +
+            "JOIN time_slots ts ON ts.service_day_id = sd.service_day_id " +
+            "LEFT JOIN slot_occupancy o ON o.slot_id = ts.slot_id " +
+            "AND o.appointment_date >= ? AND o.appointment_date < ? " +
+            "WHERE s.service_id = ? " +
+            "ORDER BY ts.slot_id";
+    public static final String COMPANY_ID_SQL =
+            "SELECT company_id FROM company_profiles WHERE company_name = ?";
+    public static final String FIND_SLOT_BY_ID_SQL =
+            "SELECT ts.slot_id, s.service_id, s.num_customers, s.company_id, sd.day_abbr FROM time_slots ts " +
+            "JOIN service_days sd ON ts.service_day_id = sd.service_day_id " +
+            "JOIN services s ON sd.service_id = s.service_id " +
+            "WHERE ts.slot_id = ?";
+    public static final String FIND_SLOT_BY_NAME_SQL =
+            "SELECT ts.slot_id, s.service_id, s.num_customers, s.company_id, sd.day_abbr FROM time_slots ts " +
+            "JOIN service_days sd ON ts.service_day_id = sd.service_day_id " +
+            "JOIN services s ON sd.service_id = s.service_id " +
+            "JOIN company_profiles c ON c.company_id = s.company_id " +
+            "WHERE c.company_name = ? AND s.service_name = ? AND sd.day_abbr = ? AND ts.start_time = ? AND ts.end_time = ?";
+    // Capacity and the slot's booking count on that date in one round trip, from its slot_occupancy counter
+    public static final String SLOT_AVAILABLE_SQL =
+            "SELECT s.num_customers, COALESCE(o.booked, 0) AS total " +
+            "FROM time_slots ts " +
+            "JOIN service_days sd ON ts.service_day_id = sd.service_day_id " +
+            "JOIN services s ON sd.service_id = s.service_id " +
+            "LEFT JOIN slot_occupancy o ON o.slot_id = ts.slot_id AND o.appointment_date = ? " +
+            "WHERE s.service_id = ? AND sd.day_abbr = ? AND ts.start_time = ? AND ts.end_time = ?";
+
+    // reserveBooking runs again after a deadlock or lock wait timeout, up to this many times in all
+    private static final int RESERVE_ATTEMPTS = 3;
+
+    // Catalog lookups below are served from db.CatalogCache; company-side writes invalidate it
+
     // 1️⃣ Get all company names
     public ObservableList<String> getCompanies() {
-        ObservableList<String> companies = FXCollections.observableArrayList();
-        String sql = "SELECT company_name FROM company_profiles";
-
-        try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                companies.add(rs.getString("company_name"));
-            }
+        try {
+            List<String> companies = CatalogCache.catalog().get("companies", () -> {
+                List<String> names = new ArrayList<>();
+                try (Connection conn = DBHelper.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(COMPANIES_SQL);
+                     ResultSet rs = stmt.executeQuery()) {
+
+                    while (rs.next()) {
+                        names.add(rs.getString("company_name"));
+                    }
+                }
+                return List.copyOf(names);
+            });
+            return FXCollections.observableArrayList(companies);
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return companies;
+        return FXCollections.observableArrayList();
     }
 
-    // 2️⃣ Get services by company
-    public ObservableList<String> getServicesByCompany(String company) {
-        ObservableList<String> services = FXCollections.observableArrayList();
-        String sql = "SELECT s.service_name FROM services s "
-                   + "JOIN company_profiles c ON s.company_id = c.company_id "
-                   + "WHERE c.company_name = ?";
-
-        try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, company);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                services.add(rs.getString("service_name"));
-            }
+    // 2️⃣ Get services by company; names repeat across companies, so each comes with its service_id
+    public ObservableList<ServiceOption> getServicesByCompany(String company) {
+        try {
+            List<ServiceOption> services = CatalogCache.catalog().get("services:" + company, () -> {
+                List<ServiceOption> options = new ArrayList<>();
+                try (Connection conn = DBHelper.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(SERVICES_BY_COMPANY_SQL)) {
+
+                    stmt.setString(1, company);
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        options.add(new ServiceOption(rs.getInt("service_id"), rs.getString("service_name")));
+                    }
+                }
+                return List.copyOf(options);
+            });
+            return FXCollections.observableArrayList(services);
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return services;
+        return FXCollections.observableArrayList();
     }
 
     // 3️⃣ Get service details
-    public Service getServiceDetails(String service) {
-        String sql = "SELECT s.service_name, CONCAT(st.first_name, ' ', st.last_name) AS provider_name, "
-                   + "s.num_customers, s.description "
-                   + "FROM services s "
-                   + "JOIN staff st ON s.staff_id = st.staff_id "
-                   + "WHERE s.service_name = ?";
-
-        try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, service);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new Service(
-                    rs.getString("service_name"),
-                    rs.getString("provider_name"),
-                    rs.getInt("num_customers"),
-                    rs.getString("description")
-                );
-            }
+    public Service getServiceDetails(int serviceId) {
+        try {
+            return CatalogCache.catalog().get("service:" + serviceId, () -> {
+                try (Connection conn = DBHelper.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(SERVICE_DETAILS_SQL)) {
+
+                    stmt.setInt(1, serviceId);
+                    ResultSet rs = stmt.executeQuery();
+
+                    if (rs.next()) {
+                        return new Service(
+                            rs.getString("service_name"),
+                            rs.getString("provider_name"),
+                            rs.getInt("num_customers"),
+                            rs.getString("description")
+                        );
+                    }
+                }
+                return null;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -79,27 +151,30 @@ public class AppointmentDAO {
 
     // 4️⃣ Get company details
     public Company getCompanyDetails(String companyName) {
-        String sql = "SELECT * FROM company_profiles WHERE company_name = ?";
-
-        try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, companyName);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new Company(
-                    rs.getString("owner_name"),
-                    rs.getString("company_name"),
-                    rs.getString("business_type"),
-                    rs.getString("phone"),
-                    rs.getString("email"),
-                    rs.getString("website"),
-                    rs.getString("start_time") + " - " + rs.getString("end_time"),
-                    rs.getString("off_days"),
-                    rs.getString("address")
-                );
-            }
+        try {
+            return CatalogCache.catalog().get("company:" + companyName, () -> {
+                try (Connection conn = DBHelper.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(COMPANY_DETAILS_SQL)) {
+
+                    stmt.setString(1, companyName);
+                    ResultSet rs = stmt.executeQuery();
+
+                    if (rs.next()) {
+                        return new Company(
+                            rs.getString("owner_name"),
+                            rs.getString("company_name"),
+                            rs.getString("business_type"),
+                            rs.getString("phone"),
+                            rs.getString("email"),
+                            rs.getString("website"),
+                            rs.getString("start_time") + " - " + rs.getString("end_time"),
+                            rs.getString("off_days"),
+                            rs.getString("address")
+                        );
+                    }
+                }
+                return null;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -107,19 +182,13 @@ public class AppointmentDAO {
     }
 
     // 5️⃣ Get time slots by staff and day
-    public List<String> getSlots(String serviceName, String day) {
+    public List<String> getSlots(int serviceId, String day) {
         List<String> slots = new ArrayList<>();
 
-        String sql = "SELECT ts.start_time, ts.end_time FROM time_slots ts "
-                   + "JOIN service_days sd ON ts.service_day_id = sd.service_day_id "
-                   + "JOIN services s ON sd.service_id = s.service_id "
-                   + "JOIN staff st ON s.staff_id = st.staff_id "
-                   + "WHERE s.service_name = ? AND sd.day_abbr = ?";
-
         try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SLOTS_SQL)) {
 
-            stmt.setString(1, serviceName);
+            stmt.setInt(1, serviceId);
             stmt.setString(2, day);
             ResultSet rs = stmt.executeQuery();
 
@@ -132,31 +201,131 @@ public class AppointmentDAO {
         return slots;
     }
 
-    // 1️⃣ Get company ID by name
-    public int getCompanyId(String companyName) {
-        String sql = "SELECT company_id FROM company_profiles WHERE company_name = ?";
+    /** How many days ahead customers can book, from today (booking.windowDays, default 28). */
+    public static int bookingWindowDays() {
+        return DBConfig.get().getInt("booking.windowDays");
+    }
+
+    // 6️⃣ Get a service's slots for every date in [from, to), with capacity and booked counts, in one query
+    public Map<LocalDate, List<SlotAvailability>> getSlotsByDate(int serviceId, LocalDate from, LocalDate to) {
+        Map<LocalDate, List<SlotAvailability>> byDate = new LinkedHashMap<>();
+
+        // 1. The weekly slots, and the booked counts by slot and date
+        Map<String, List<SlotAvailability>> weekly = new LinkedHashMap<>();
+        Map<Integer, Map<LocalDate, Integer>> booked = new HashMap<>();
         try (Connection conn = DBHelper.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SLOTS_BY_DATE_SQL)) {
 
-            stmt.setString(1, companyName);
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            stmt.setInt(3, serviceId);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                return rs.getInt("company_id");
+            int lastSlotId = 0;
+            while (rs.next()) {
+                int slotId = rs.getInt("slot_id");
+                if (slotId != lastSlotId) {
+                    String day = dayLabel(rs.getString("day_abbr"));
+                    weekly.computeIfAbsent(day, k -> new ArrayList<>()).add(new SlotAvailability(
+                        slotId,
+                        null,
+                        day,
+                        rs.getString("start_time") + " - " + rs.getString("end_time"),
+                        rs.getInt("num_customers"),
+                        0
+                    ));
+                    lastSlotId = slotId;
+                }
+                Date date = rs.getDate("appointment_date");
+                if (date != null) booked.computeIfAbsent(slotId, k -> new HashMap<>()).put(date.toLocalDate(), rs.getInt("booked"));
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return byDate;
+        }
+
+        // 2. Each date gets the slots of its weekday
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            List<SlotAvailability> slots = weekly.get(Booking.dayAbbr(date));
+            if (slots == null) continue;
+            List<SlotAvailability> dated = new ArrayList<>(slots.size());
+            for (SlotAvailability slot : slots) {
+                int count = booked.getOrDefault(slot.getSlotId(), Map.of()).getOrDefault(date, 0);
+                dated.add(new SlotAvailability(slot.getSlotId(), date, slot.getDay(), slot.getSlot(), slot.getCapacity(), count));
+            }
+            byDate.put(date, dated);
+        }
+        return byDate;
+    }
+
+    // Company side stores "mon", the booking screen shows "Mon"
+    private static String dayLabel(String dayAbbr) {
+        if (dayAbbr == null || dayAbbr.isEmpty()) return dayAbbr;
+        return Character.toUpperCase(dayAbbr.charAt(0)) + dayAbbr.substring(1).toLowerCase();
+    }
+
+    // 1️⃣ Get company ID by name
+    public int getCompanyId(String companyName) {
+        try {
+            Integer companyId = CatalogCache.catalog().get("companyId:" + companyName, () -> {
+                try (Connection conn = DBHelper.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(COMPANY_ID_SQL)) {
+
+                    stmt.setString(1, companyName);
+                    ResultSet rs = stmt.executeQuery();
+
+                    if (rs.next()) {
+                        return rs.getInt("company_id");
+                    }
+                }
+                return null;
+            });
+            if (companyId != null) return companyId;
         } catch (Exception e) {
             e.printStackTrace();
         }
         return -1; // Return -1 or throw an exception if not found
     }
 
-    public boolean saveBooking(Booking b, int company_id) {
-        String sql = "INSERT INTO bookings (company_id, company_name, service_name, day, slot_time, customer_name, phone, email, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    /** The time_slots row a booking refers to, with what is needed to book it. */
+    private record SlotRef(int slotId, int serviceId, int capacity, int companyId, String dayAbbr) {}
+
+    // Resolves the booking's slot by slot_id when the screen knows it, else by company/service/day/time strings
+    private SlotRef findSlot(Connection conn, Booking b) throws SQLException {
+        PreparedStatement stmt;
+        if (b.getSlotId() > 0) {
+            stmt = conn.prepareStatement(FIND_SLOT_BY_ID_SQL);
+            stmt.setInt(1, b.getSlotId());
+        } else {
+            String[] times = b.getSlot() == null ? new String[0] : b.getSlot().split(" - ", 2);
+            if (times.length != 2) return null;
+            stmt = conn.prepareStatement(FIND_SLOT_BY_NAME_SQL);
+            stmt.setString(1, b.getCompany());
+            stmt.setString(2, b.getService());
+            stmt.setString(3, b.getDay());
+            stmt.setString(4, times[0]);
+            stmt.setString(5, times[1]);
+        }
 
-        try (Connection conn = DBHelper.getConnection();
-         PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (stmt; ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) return null;
+            return new SlotRef(
+                rs.getInt("slot_id"),
+                rs.getInt("service_id"),
+                rs.getInt("num_customers"),
+                rs.getInt("company_id"),
+                rs.getString("day_abbr")
+            );
+        }
+    }
+
+    // Inserts the booking row; the name/day/slot strings are kept as a snapshot of what the customer saw
+    private void insertBooking(Connection conn, Booking b, int companyId, SlotRef slot) throws SQLException {
+        String sql = "INSERT INTO bookings (company_id, company_name, service_name, day, slot_time, customer_name, phone, email, notes, service_id, slot_id, appointment_date) "
+                   + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-            stmt.setInt(1, company_id);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, companyId);
             stmt.setString(2, b.getCompany());
             stmt.setString(3, b.getService());
             stmt.setString(4, b.getDay());
@@ -165,40 +334,149 @@ public class AppointmentDAO {
             stmt.setString(7, b.getPhone());
             stmt.setString(8, b.getEmail());
             stmt.setString(9, b.getNotes());
+            if (slot != null) {
+                stmt.setInt(10, slot.serviceId());
+                stmt.setInt(11, slot.slotId());
+            } else {
+                stmt.setNull(10, Types.INTEGER);
+                stmt.setNull(11, Types.INTEGER);
+            }
+            if (b.getDate() != null) {
+                stmt.setDate(12, Date.valueOf(b.getDate()));
+            } else {
+                stmt.setNull(12, Types.DATE);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    // Books without a capacity check; the slot's counter is still kept in step
+    public boolean saveBooking(Booking b, int company_id) {
+        Connection conn = null;
+        try {
+            conn = DBHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            SlotRef slot = findSlot(conn, b);
+            if (slot != null && slot.companyId() != company_id) {
+                conn.rollback();
+                return false;
+            }
+            insertBooking(conn, b, company_id, slot);
+            if (slot != null && b.getDate() != null) SlotOccupancy.add(conn, slot.slotId(), b.getDate());
 
-            return stmt.executeUpdate() > 0;
+            conn.commit();
+            return true;
         } catch (Exception e) {
             e.printStackTrace();
+            try { if (conn != null) conn.rollback(); } catch (SQLException ignored) {}
             return false;
+        } finally {
+            DBHelper.close(conn, null, null);
+        }
+    }
+
+    /**
+     * Books a slot on the booking's date only if it still has room that day, as one transaction.
+     * The slot's slot_occupancy counter for that date is incremented only while it is below
+     * capacity; that row stays locked until we commit, so concurrent bookers of the same
+     * occurrence queue up on it and each one sees the count left by the one before.
+     * A transaction that loses a deadlock or times out waiting for a lock is rolled back
+     * and run again, RESERVE_ATTEMPTS times at most, before the booking is reported FAILED.
+     */
+    public BookingResult reserveBooking(Booking b) {
+        int companyId = getCompanyId(b.getCompany());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tryReserve(b, companyId);
+            } catch (SQLException e) {
+                if (attempt >= RESERVE_ATTEMPTS || !isLockConflict(e)) {
+                    e.printStackTrace();
+                    return BookingResult.FAILED;
+                }
+                System.err.println("=== Booking retry " + attempt + " after lock conflict: " + e.getMessage() + " ===");
+                try {
+                    // Back off a little, with jitter, so the two sides of a deadlock don't collide again
+                    Thread.sleep(20L * attempt + (long) (Math.random() * 20));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return BookingResult.FAILED;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                return BookingResult.FAILED;
+            }
         }
     }
 
-    // ✅ Check if seats available for a given service, day & slot
-    public boolean isSlotAvailable(String service, String day, String slot) {
-        String capacitySql = "SELECT num_customers FROM services WHERE service_name = ?";
-        String bookingSql = "SELECT COUNT(*) AS total FROM bookings WHERE service_name = ? AND day = ? AND slot_time = ?";
+    // Deadlock (MySQL 1213, SQLState 40001) or lock wait timeout (1205)
+    private static boolean isLockConflict(SQLException e) {
+        return e instanceof SQLTransactionRollbackException || "40001".equals(e.getSQLState())
+                || e.getErrorCode() == 1213 || e.getErrorCode() == 1205;
+    }
 
-        try (Connection conn = DBHelper.getConnection()) {
+    // One reservation transaction; rolled back on any exception, which is left to reserveBooking
+    private BookingResult tryReserve(Booking b, int companyId) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DBHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            // 1️⃣ Resolve the slot and its capacity
+            SlotRef slot = findSlot(conn, b);
+            if (slot == null) {
+                conn.rollback();
+                return BookingResult.SLOT_NOT_FOUND;
+            }
+            if (slot.companyId() != companyId) {
+                conn.rollback();
+                return BookingResult.WRONG_COMPANY;
+            }
 
-            // 1️⃣ Get capacity
-            int capacity = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(capacitySql)) {
-                stmt.setString(1, service);
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) capacity = rs.getInt("num_customers");
+            // 2️⃣ The date must be today or later and fall on the slot's weekday
+            LocalDate date = b.getDate();
+            if (date == null || date.isBefore(LocalDate.now()) || !Booking.dayAbbr(date).equalsIgnoreCase(slot.dayAbbr())) {
+                conn.rollback();
+                return BookingResult.INVALID_DATE;
             }
 
-            // 2️⃣ Count bookings
-            int booked = 0;
-            try (PreparedStatement stmt2 = conn.prepareStatement(bookingSql)) {
-                stmt2.setString(1, service);
-                stmt2.setString(2, day);
-                stmt2.setString(3, slot);
-                ResultSet rs2 = stmt2.executeQuery();
-                if (rs2.next()) booked = rs2.getInt("total");
+            // 3️⃣ Take a place; other bookers of this slot and date wait on the counter until we commit
+            if (!SlotOccupancy.reserve(conn, slot.slotId(), date, slot.capacity())) {
+                conn.rollback();
+                return BookingResult.SLOT_FULL;
             }
 
-            return booked < capacity; // ✅ True means slot available
+            // 4️⃣ Insert and release the lock
+            insertBooking(conn, b, companyId, slot);
+            conn.commit();
+            return BookingResult.BOOKED;
+
+        } catch (SQLException | RuntimeException e) {
+            try { if (conn != null) conn.rollback(); } catch (SQLException rollback) { e.addSuppressed(rollback); }
+            throw e;
+        } finally {
+            DBHelper.close(conn, null, null);
+        }
+    }
+
+    // ✅ Check if seats available for a given service, date & slot
+    public boolean isSlotAvailable(int serviceId, LocalDate date, String slot) {
+        String[] times = slot == null ? new String[0] : slot.split(" - ", 2);
+        if (times.length != 2 || date == null) return false;
+
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SLOT_AVAILABLE_SQL)) {
+
+            stmt.setDate(1, Date.valueOf(date));
+            stmt.setInt(2, serviceId);
+            stmt.setString(3, Booking.dayAbbr(date));
+            stmt.setString(4, times[0]);
+            stmt.setString(5, times[1]);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt("total") < rs.getInt("num_customers"); // ✅ True means slot available
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -1,5 +1,9 @@
 package customer;
 
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
 public class Booking {
     private String company;
     private String service;
@@ -9,9 +13,29 @@ public class Booking {
     private String phone;
     private String email;
     private String notes;
+    private int slotId; // time_slots.slot_id, 0 if only the day/slot strings are known
+    private LocalDate date; // appointment date, null for undated bookings
 
     public Booking(String company, String service, String day, String slot,
                    String name, String phone, String email, String notes) {
+        this(0, company, service, day, slot, name, phone, email, notes);
+    }
+
+    public Booking(int slotId, String company, String service, String day, String slot,
+                   String name, String phone, String email, String notes) {
+        this(slotId, null, company, service, day, slot, name, phone, email, notes);
+    }
+
+    /** A booking of one dated occurrence of a slot; the day is taken from the date ("Mon"). */
+    public Booking(int slotId, LocalDate date, String company, String service, String slot,
+                   String name, String phone, String email, String notes) {
+        this(slotId, date, company, service, dayAbbr(date), slot, name, phone, email, notes);
+    }
+
+    private Booking(int slotId, LocalDate date, String company, String service, String day, String slot,
+                    String name, String phone, String email, String notes) {
+        this.slotId = slotId;
+        this.date = date;
         this.company = company;
         this.service = service;
         this.day = day;
@@ -30,4 +54,11 @@ public class Booking {
     public String getPhone() { return phone; }
     public String getEmail() { return email; }
     public String getNotes() { return notes; }
+    public int getSlotId() { return slotId; }
+    public LocalDate getDate() { return date; }
+
+    /** "Mon" for a Monday, as the booking screen and bookings.day use it. */
+    public static String dayAbbr(LocalDate date) {
+        return date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+    }
 }
@@ -0,0 +1,11 @@
+package customer;
+
+/** Outcome of AppointmentDAO.reserveBooking. */
+public enum BookingResult {
+    BOOKED,
+    SLOT_FULL,
+    SLOT_NOT_FOUND,
+    WRONG_COMPANY, // the slot belongs to another company than the one named on the booking
+    INVALID_DATE, // no date, a past date, or not a day the slot is offered on
+    FAILED
+}
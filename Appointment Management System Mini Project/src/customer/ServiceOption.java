@@ -0,0 +1,21 @@
+package customer;
+
+/**
+ * One entry of a company's service list. Service names are only unique within a
+ * company, so everything after the pick is looked up by serviceId.
+ */
+public class ServiceOption {
+    private int serviceId;
+    private String serviceName;
+
+    public ServiceOption(int serviceId, String serviceName) {
+        this.serviceId = serviceId;
+        this.serviceName = serviceName;
+    }
+
+    public int getServiceId() { return serviceId; }
+    public String getServiceName() { return serviceName; }
+
+    @Override
+    public String toString() { return serviceName; } // what the service combo box shows
+}
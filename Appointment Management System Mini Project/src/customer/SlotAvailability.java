@@ -0,0 +1,30 @@
+package customer;
+
+import java.time.LocalDate;
+
+/** One bookable slot of a service on a given date, with its occupancy on that date. */
+public class SlotAvailability {
+    private int slotId;
+    private LocalDate date;
+    private String day;
+    private String slot;
+    private int capacity;
+    private int booked;
+
+    public SlotAvailability(int slotId, LocalDate date, String day, String slot, int capacity, int booked) {
+        this.slotId = slotId;
+        this.date = date;
+        this.day = day;
+        this.slot = slot;
+        this.capacity = capacity;
+        this.booked = booked;
+    }
+
+    public int getSlotId() { return slotId; }
+    public LocalDate getDate() { return date; }
+    public String getDay() { return day; }
+    public String getSlot() { return slot; }
+    public int getCapacity() { return capacity; }
+    public int getBooked() { return booked; }
+    public boolean isAvailable() { return booked < capacity; }
+}
@@ -0,0 +1,89 @@
+package db;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs DAO calls off the JavaFX application thread and delivers results back on it.
+ *
+ * Each load belongs to a named channel (e.g. "services"). Starting a new load on a
+ * channel cancels the one still in flight there, so a result for a selection the
+ * user has already changed is never applied. All methods must be called on the FX thread.
+ */
+public class AsyncLoader {
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "db-async-" + THREAD_IDS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, Request> inFlight = new HashMap<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+
+    /** Starts a load on the given channel, replacing anything still running on it. */
+    public <T> void load(String channel, Callable<T> query, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        cancel(channel);
+
+        Request request = new Request();
+        inFlight.put(channel, request);
+        busy.set(true);
+
+        request.future = EXECUTOR.submit(() -> {
+            try {
+                T result = query.call();
+                Platform.runLater(() -> {
+                    if (finish(channel, request)) onSuccess.accept(result);
+                });
+            } catch (Throwable t) {
+                Platform.runLater(() -> {
+                    if (finish(channel, request)) onError.accept(t);
+                });
+            }
+        });
+    }
+
+    /** Drops the in-flight load on a channel; its result will be ignored. */
+    public void cancel(String channel) {
+        Request old = inFlight.remove(channel);
+        if (old != null) {
+            old.cancelled = true;
+            // Don't interrupt: a JDBC call blocked in socket I/O would leave the connection unusable
+            if (old.future != null) old.future.cancel(false);
+        }
+        busy.set(!inFlight.isEmpty());
+    }
+
+    public void cancelAll() {
+        for (String channel : new ArrayList<>(inFlight.keySet())) cancel(channel);
+    }
+
+    /** True while at least one load is running; bind loading indicators to this. */
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    private boolean finish(String channel, Request request) {
+        if (request.cancelled || inFlight.get(channel) != request) return false;
+        inFlight.remove(channel);
+        busy.set(!inFlight.isEmpty());
+        return true;
+    }
+
+    private static class Request {
+        volatile Future<?> future;
+        volatile boolean cancelled = false;
+    }
+}
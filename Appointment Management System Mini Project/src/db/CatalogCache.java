@@ -0,0 +1,127 @@
+package db;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for the company/service catalog (company names, services of a
+ * company, service and company details).
+ *
+ * Entries are evicted least-recently-used once maxEntries is reached and expire after
+ * the TTL, which also bounds staleness for edits made by another running instance.
+ * Writes in this process call invalidateAll() after they commit. Failed loads are
+ * never cached.
+ *
+ * Settings (db.properties): cache.catalog.maxEntries, cache.catalog.ttlSeconds (0 disables).
+ */
+public class CatalogCache {
+
+    /** A DAO query run on a cache miss. */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    /** Counters since start-up. */
+    public record Stats(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d hitRate=%.1f%% evictions=%d expirations=%d invalidations=%d size=%d",
+                    hits, misses, hitRate() * 100, evictions, expirations, invalidations, size);
+        }
+    }
+
+    private static volatile CatalogCache instance;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+
+    // Bumped by invalidateAll(); a load that started before it must not store its result
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CatalogCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        // accessOrder = true: iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= CatalogCache.this.maxEntries) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /** The process-wide catalog cache, sized from DBConfig on first use. */
+    public static CatalogCache catalog() {
+        CatalogCache c = instance;
+        if (c == null) {
+            synchronized (CatalogCache.class) {
+                c = instance;
+                if (c == null) {
+                    DBConfig config = DBConfig.get();
+                    int maxEntries = config.getInt("cache.catalog.maxEntries");
+                    int ttlSeconds = config.getInt("cache.catalog.ttlSeconds");
+                    c = instance = new CatalogCache(maxEntries, ttlSeconds * 1000L);
+                }
+            }
+        }
+        return c;
+    }
+
+    /** Returns the cached value for key, or runs the loader and caches a non-null result. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Loader<T> loader) throws SQLException {
+        long startedGeneration;
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                if (System.nanoTime() - e.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return (T) e.value;
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+            startedGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        T value = loader.load(); // outside the lock: a slow query must not block other lookups
+
+        if (value != null && ttlNanos > 0 && maxEntries > 0) {
+            synchronized (this) {
+                if (generation == startedGeneration) entries.put(key, new Entry(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    /** Drops every entry; call after any write to companies, profiles, services or staff. */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), expirations.get(), invalidations.get(), entries.size());
+    }
+
+    private record Entry(Object value, long loadedAt) {}
+}
@@ -0,0 +1,327 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded JDBC connection pool used behind {@link DBHelper}.
+ * Connections handed out are proxies: calling close() returns the
+ * physical connection to the pool instead of closing the socket, and
+ * closes any statements the borrower left open on it.
+ * With a {@link QueryMetrics} registry, borrow times and every statement
+ * created on those connections are recorded there.
+ */
+public class ConnectionPool {
+
+    /** Pool sizing and timing knobs. */
+    public static record Settings(int minIdle, int maxSize, long borrowTimeoutMs,
+                                  long idleTimeoutMs, long leakThresholdMs,
+                                  long validationIntervalMs, int validationTimeoutSec) {}
+
+    private final String url;
+    private final Properties driverProperties;
+    private final Settings settings;
+    private final QueryMetrics metrics; // null: not recorded
+
+    private final Deque<Entry> idle = new ArrayDeque<>(); // guarded by this
+    private final Set<Entry> inUse = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(String url, Properties driverProperties, Settings settings) {
+        this(url, driverProperties, settings, null);
+    }
+
+    public ConnectionPool(String url, Properties driverProperties, Settings settings, QueryMetrics metrics) {
+        this.url = url;
+        this.driverProperties = driverProperties;
+        this.settings = settings;
+        this.metrics = metrics;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        // leakThresholdMs = 0 turns leak reports off, so it only shortens the period when set
+        long shortest = settings.leakThresholdMs() > 0 ? Math.min(settings.idleTimeoutMs(), settings.leakThresholdMs()) : settings.idleTimeoutMs();
+        long period = Math.max(1000, shortest / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Borrows a connection, waiting up to the configured borrow timeout. */
+    public Connection borrow() throws SQLException {
+        if (shutdown) throw new SQLException("Connection pool has been shut down.");
+
+        long started = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.borrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                if (metrics != null) metrics.recordBorrowTimeout(System.nanoTime() - started);
+                throw new SQLException("Timed out after " + settings.borrowTimeoutMs()
+                        + " ms waiting for a database connection (pool max=" + settings.maxSize()
+                        + ", in use=" + inUse.size() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            Entry entry = takeValidIdle();
+            if (entry == null) entry = openEntry();
+
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowSite = settings.leakThresholdMs() > 0 ? new Throwable("Connection borrowed here") : null;
+            entry.leakReported = false;
+            inUse.add(entry);
+            if (metrics != null) metrics.recordConnectionWait(System.nanoTime() - started);
+            return entry.newProxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** Closes every idle connection and stops handing out new ones. */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        synchronized (this) {
+            for (Entry e : idle) closeQuietly(e.physical);
+            idle.clear();
+        }
+    }
+
+    public synchronized int idleCount() { return idle.size(); }
+    public int inUseCount() { return inUse.size(); }
+
+    // ---------------- internals -------------------
+
+    private Entry openEntry() throws SQLException {
+        Connection c = DriverManager.getConnection(url, driverProperties);
+        try {
+            return new Entry(c);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw e;
+        }
+    }
+
+    /** Pops idle connections (most recently used first) until one passes validation. */
+    private Entry takeValidIdle() {
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) return null;
+
+            long idleFor = System.currentTimeMillis() - entry.returnedAt;
+            if (idleFor < settings.validationIntervalMs() || isAlive(entry.physical)) {
+                return entry;
+            }
+            closeQuietly(entry.physical);
+        }
+    }
+
+    private boolean isAlive(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(settings.validationTimeoutSec());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /** Called by the proxy when the DAO closes its connection. */
+    private void release(Entry entry) {
+        inUse.remove(entry);
+        try {
+            Connection c = entry.physical;
+            if (shutdown || c.isClosed()) {
+                closeQuietly(c);
+                return;
+            }
+            // Undo whatever the borrower changed so the next DAO gets a clean connection
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            if (c.isReadOnly()) c.setReadOnly(false);
+            if (c.getTransactionIsolation() != entry.defaultIsolation) c.setTransactionIsolation(entry.defaultIsolation);
+            c.clearWarnings();
+
+            entry.returnedAt = System.currentTimeMillis();
+            synchronized (this) {
+                idle.addFirst(entry);
+            }
+        } catch (SQLException e) {
+            closeQuietly(entry.physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // 1. Evict connections idle for too long, but keep minIdle around
+            synchronized (this) {
+                Iterator<Entry> it = idle.descendingIterator(); // oldest first
+                while (it.hasNext() && idle.size() > settings.minIdle()) {
+                    Entry e = it.next();
+                    if (now - e.returnedAt > settings.idleTimeoutMs()) {
+                        it.remove();
+                        closeQuietly(e.physical);
+                    }
+                }
+            }
+
+            // 2. Top up to minIdle. Opening holds a permit like a borrower does, so a
+            //    refill racing with borrowers never takes the pool past maxSize
+            while (!shutdown && permits.tryAcquire()) {
+                try {
+                    synchronized (this) {
+                        if (idle.size() >= settings.minIdle() || idle.size() + inUse.size() >= settings.maxSize()) break;
+                    }
+                    Entry fresh = openEntry();
+                    fresh.returnedAt = System.currentTimeMillis();
+                    synchronized (this) {
+                        idle.addLast(fresh);
+                    }
+                } finally {
+                    permits.release();
+                }
+            }
+
+            // 3. Report connections that were borrowed and never returned
+            if (settings.leakThresholdMs() > 0) {
+                for (Entry e : inUse) {
+                    if (!e.leakReported && now - e.borrowedAt > settings.leakThresholdMs()) {
+                        e.leakReported = true;
+                        System.err.println("=== DB POOL: possible connection leak, held for "
+                                + (now - e.borrowedAt) + " ms ===");
+                        if (e.borrowSite != null) e.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("=== DB POOL housekeeping failed: " + e.getMessage() + " ===");
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        try { if (c != null) c.close(); } catch (Exception ignored) {}
+    }
+
+    /** One physical connection plus its bookkeeping. */
+    private final class Entry {
+        final Connection physical;
+        final int defaultIsolation;
+        volatile long borrowedAt;
+        volatile long returnedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        Entry(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handler(this));
+        }
+    }
+
+    /** Routes calls to the physical connection until the borrower closes it. */
+    private final class Handler implements InvocationHandler {
+        private final Entry entry;
+        private boolean closed = false;
+        // Statements created through this proxy, closed on release if the borrower didn't
+        private final List<Statement> statements = new ArrayList<>();
+
+        Handler(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeStatements();
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    if (closed) throw new SQLException("Connection has already been returned to the pool.");
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // createStatement / prepareStatement / prepareCall
+            if (result instanceof Statement statement) {
+                track(statement);
+                if (metrics != null) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    return metrics.instrument(statement, method.getReturnType(), sql, (Connection) proxy);
+                }
+            }
+            return result;
+        }
+
+        private void track(Statement statement) {
+            // Drop the ones already closed, so a long-held connection doesn't collect them
+            statements.removeIf(s -> {
+                try {
+                    return s.isClosed();
+                } catch (SQLException e) {
+                    return true;
+                }
+            });
+            statements.add(statement);
+        }
+
+        private void closeStatements() {
+            for (Statement s : statements) {
+                try { s.close(); } catch (Exception ignored) {}
+            }
+            statements.clear();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Database settings for DBHelper.
+ *
+ * Values are resolved in this order (later wins):
+ *   1. built-in defaults
+ *   2. db.properties (path from -Dservicehub.db.config / SERVICE_HUB_DB_CONFIG,
+ *      else ./db.properties, else db.properties on the classpath)
+ *   3. environment variables, e.g. db.url -> SERVICE_HUB_DB_URL
+ *   4. system properties, e.g. db.url -> -Dservicehub.db.url
+ *
+ * Keys starting with "mysql." are passed to Connector/J as driver properties,
+ * but only the curated set below is accepted. Settings read by other components
+ * (cache.*, booking.*, metrics.*, slowlog.*) are checked here too, so a bad value
+ * fails at startup; read them with getInt / getBoolean.
+ */
+public class DBConfig {
+
+    public static final String CONFIG_PATH_PROPERTY = "servicehub.db.config";
+    private static final String ENV_PREFIX = "SERVICE_HUB_";
+    private static final String SYS_PREFIX = "servicehub.";
+    private static final String DRIVER_PREFIX = "mysql.";
+
+    private enum Kind { BOOL, INT }
+
+    // Connector/J properties we allow to be tuned, and the type each expects
+    private static final Map<String, Kind> DRIVER_PROPERTIES = Map.ofEntries(
+            Map.entry("cachePrepStmts", Kind.BOOL),
+            Map.entry("prepStmtCacheSize", Kind.INT),
+            Map.entry("prepStmtCacheSqlLimit", Kind.INT),
+            Map.entry("useServerPrepStmts", Kind.BOOL),
+            Map.entry("rewriteBatchedStatements", Kind.BOOL),
+            Map.entry("useCursorFetch", Kind.BOOL),
+            Map.entry("defaultFetchSize", Kind.INT),
+            Map.entry("useLocalSessionState", Kind.BOOL),
+            Map.entry("elideSetAutoCommits", Kind.BOOL),
+            Map.entry("cacheResultSetMetadata", Kind.BOOL),
+            Map.entry("cacheServerConfiguration", Kind.BOOL),
+            Map.entry("maintainTimeStats", Kind.BOOL),
+            Map.entry("tcpKeepAlive", Kind.BOOL),
+            Map.entry("connectTimeout", Kind.INT),
+            Map.entry("socketTimeout", Kind.INT)
+    );
+
+    private record Range(int min, int max) {}
+
+    // Integer settings owned by other components, with their allowed range
+    private static final Map<String, Range> INT_SETTINGS = Map.of(
+            "cache.catalog.maxEntries", new Range(0, Integer.MAX_VALUE),
+            "cache.catalog.ttlSeconds", new Range(0, Integer.MAX_VALUE / 1000),
+            "booking.windowDays", new Range(1, 366),
+            "metrics.maxTemplates", new Range(0, Integer.MAX_VALUE),
+            "slowlog.thresholdMs", new Range(0, Integer.MAX_VALUE),
+            "slowlog.maxFileKB", new Range(0, Integer.MAX_VALUE / 1024),
+            "slowlog.maxFiles", new Range(1, 1000)
+    );
+
+    private static final Set<String> BOOL_SETTINGS = Set.of(
+            "metrics.enabled", "metrics.countRows", "slowlog.explain", "slowlog.maskParameters");
+
+    private static volatile DBConfig instance;
+
+    private final Properties values;
+    private final String url;
+    private final String user;
+    private final String driverClass;
+    private final Properties driverProperties = new Properties();
+    private final ConnectionPool.Settings poolSettings;
+
+    private DBConfig(Properties values) {
+        this.values = values;
+        List<String> errors = new ArrayList<>();
+
+        url = values.getProperty("db.url", "").trim();
+        user = values.getProperty("db.user", "");
+        driverClass = values.getProperty("db.driver", "").trim();
+
+        if (!url.startsWith("jdbc:")) errors.add("db.url must be a JDBC URL, got '" + url + "'");
+        if (driverClass.isEmpty()) errors.add("db.driver must not be empty");
+
+        for (String key : values.stringPropertyNames()) {
+            if (!key.startsWith(DRIVER_PREFIX)) continue;
+            String name = key.substring(DRIVER_PREFIX.length());
+            String value = values.getProperty(key).trim();
+            Kind kind = DRIVER_PROPERTIES.get(name);
+            if (kind == null) {
+                errors.add("Unsupported driver property '" + key + "' (allowed: " + DRIVER_PROPERTIES.keySet() + ")");
+            } else if (kind == Kind.BOOL && !value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                errors.add(key + " must be true or false, got '" + value + "'");
+            } else if (kind == Kind.INT && parseInt(value) < 0) {
+                errors.add(key + " must be a non-negative integer, got '" + value + "'");
+            } else {
+                driverProperties.setProperty(name, value);
+            }
+        }
+        driverProperties.setProperty("user", user);
+        driverProperties.setProperty("password", values.getProperty("db.password", ""));
+
+        int minIdle = intValue("pool.minIdle", errors);
+        int maxSize = intValue("pool.maxSize", errors);
+        if (maxSize < 1) errors.add("pool.maxSize must be at least 1");
+        if (minIdle > maxSize) errors.add("pool.minIdle (" + minIdle + ") must not exceed pool.maxSize (" + maxSize + ")");
+
+        poolSettings = new ConnectionPool.Settings(
+                minIdle,
+                maxSize,
+                intValue("pool.borrowTimeoutMs", errors),
+                intValue("pool.idleTimeoutMs", errors),
+                intValue("pool.leakThresholdMs", errors),
+                intValue("pool.validationIntervalMs", errors),
+                intValue("pool.validationTimeoutSec", errors)
+        );
+
+        for (Map.Entry<String, Range> setting : new TreeMap<>(INT_SETTINGS).entrySet()) {
+            String key = setting.getKey();
+            Range range = setting.getValue();
+            int v = parseInt(values.getProperty(key, ""));
+            if (v < range.min() || v > range.max()) {
+                errors.add(key + " must be an integer from " + range.min() + " to " + range.max() + ", got '" + values.getProperty(key) + "'");
+            }
+        }
+        for (String key : new TreeSet<>(BOOL_SETTINGS)) {
+            String value = values.getProperty(key, "").trim();
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                errors.add(key + " must be true or false, got '" + value + "'");
+            }
+        }
+        if (values.getProperty("slowlog.file", "").isBlank()) errors.add("slowlog.file must not be empty");
+
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid database configuration:\n  - " + String.join("\n  - ", errors));
+        }
+    }
+
+    /** Returns the process-wide configuration, loading and validating it on first use. */
+    public static DBConfig get() {
+        DBConfig c = instance;
+        if (c == null) {
+            synchronized (DBConfig.class) {
+                c = instance;
+                if (c == null) c = instance = load();
+            }
+        }
+        return c;
+    }
+
+    private static DBConfig load() {
+        Properties merged = defaults();
+
+        try {
+            Properties file = readFile();
+            if (file != null) merged.putAll(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read database configuration: " + e.getMessage(), e);
+        }
+
+        // Overrides: any key already known (or any mysql.* key) can come from env / system properties
+        for (Map.Entry<String, String> env : System.getenv().entrySet()) {
+            if (!env.getKey().startsWith(ENV_PREFIX) || env.getKey().equals("SERVICE_HUB_DB_CONFIG")) continue;
+            String key = fromEnvName(env.getKey(), merged);
+            if (key != null) merged.setProperty(key, env.getValue());
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (!name.startsWith(SYS_PREFIX) || name.equals(CONFIG_PATH_PROPERTY)) continue;
+            merged.setProperty(name.substring(SYS_PREFIX.length()), System.getProperty(name));
+        }
+        return new DBConfig(merged);
+    }
+
+    private static Properties defaults() {
+        Properties p = new Properties();
+        p.setProperty("db.url", "jdbc:mysql://localhost:3306/service_hub");
+        p.setProperty("db.user", "root");
+        p.setProperty("db.password", "root");
+        p.setProperty("db.driver", "com.mysql.cj.jdbc.Driver");
+
+        p.setProperty("pool.minIdle", "2");
+        p.setProperty("pool.maxSize", "10");
+        p.setProperty("pool.borrowTimeoutMs", "5000");
+        p.setProperty("pool.idleTimeoutMs", "300000");
+        p.setProperty("pool.leakThresholdMs", "0"); // off: each borrow would capture a stack trace
+        p.setProperty("pool.validationIntervalMs", "5000");
+        p.setProperty("pool.validationTimeoutSec", "2");
+
+        // Read by CatalogCache; listed here so SERVICE_HUB_CACHE_CATALOG_* env overrides resolve
+        p.setProperty("cache.catalog.maxEntries", "256");
+        p.setProperty("cache.catalog.ttlSeconds", "300");
+
+        // Read by customer.AppointmentDAO (booking window)
+        p.setProperty("booking.windowDays", "28");
+
+        // Read by QueryMetrics
+        p.setProperty("metrics.enabled", "true");
+        p.setProperty("metrics.maxTemplates", "500");
+        p.setProperty("metrics.countRows", "true");
+
+        // Read by SlowQueryLog
+        p.setProperty("slowlog.thresholdMs", "500");
+        p.setProperty("slowlog.explain", "false");
+        p.setProperty("slowlog.maskParameters", "true");
+        p.setProperty("slowlog.file", "logs/slow-queries.%g.log");
+        p.setProperty("slowlog.maxFileKB", "10240");
+        p.setProperty("slowlog.maxFiles", "5");
+        return p;
+    }
+
+    private static Properties readFile() throws IOException {
+        String explicit = System.getProperty(CONFIG_PATH_PROPERTY, System.getenv("SERVICE_HUB_DB_CONFIG"));
+        Properties p = new Properties();
+
+        if (explicit != null && !explicit.isBlank()) {
+            try (InputStream in = Files.newInputStream(Paths.get(explicit))) {
+                p.load(in);
+            }
+            return p;
+        }
+
+        Path local = Paths.get("db.properties");
+        if (Files.isRegularFile(local)) {
+            try (InputStream in = Files.newInputStream(local)) {
+                p.load(in);
+            }
+            return p;
+        }
+
+        try (InputStream in = DBConfig.class.getResourceAsStream("/db.properties")) {
+            if (in == null) return null;
+            p.load(in);
+        }
+        return p;
+    }
+
+    /** Maps SERVICE_HUB_POOL_MAXSIZE back to pool.maxSize by matching known keys case-insensitively. */
+    private static String fromEnvName(String envName, Properties known) {
+        String wanted = envName.substring(ENV_PREFIX.length());
+        for (String key : known.stringPropertyNames()) {
+            if (toEnvSuffix(key).equals(wanted)) return key;
+        }
+        for (String name : DRIVER_PROPERTIES.keySet()) {
+            String key = DRIVER_PREFIX + name;
+            if (toEnvSuffix(key).equals(wanted)) return key;
+        }
+        return null;
+    }
+
+    private static String toEnvSuffix(String key) {
+        return key.replace('.', '_').toUpperCase();
+    }
+
+    private int intValue(String key, List<String> errors) {
+        int v = parseInt(values.getProperty(key, ""));
+        if (v < 0) errors.add(key + " must be a non-negative integer, got '" + values.getProperty(key) + "'");
+        return v;
+    }
+
+    private static int parseInt(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ---------------- accessors -------------------
+
+    public String getUrl() { return url; }
+    public String getUser() { return user; }
+    public String getDriverClass() { return driverClass; }
+    public ConnectionPool.Settings getPoolSettings() { return poolSettings; }
+
+    /** Driver properties (including user/password) to hand to DriverManager. */
+    public Properties getDriverProperties() {
+        Properties copy = new Properties();
+        copy.putAll(driverProperties);
+        return copy;
+    }
+
+    /** Raw lookup for settings owned by other components. */
+    public String get(String key, String fallback) {
+        return values.getProperty(key, fallback);
+    }
+
+    /** A validated integer setting, e.g. booking.windowDays. */
+    public int getInt(String key) {
+        if (!INT_SETTINGS.containsKey(key)) throw new IllegalArgumentException("Not an integer setting: " + key);
+        return parseInt(values.getProperty(key));
+    }
+
+    /** A validated boolean setting (metrics.*, slowlog.*) or boolean driver property (mysql.*). */
+    public boolean getBoolean(String key) {
+        boolean known = BOOL_SETTINGS.contains(key)
+                || key.startsWith(DRIVER_PREFIX) && DRIVER_PROPERTIES.get(key.substring(DRIVER_PREFIX.length())) == Kind.BOOL;
+        if (!known) throw new IllegalArgumentException("Not a boolean setting: " + key);
+        return Boolean.parseBoolean(values.getProperty(key, "false").trim());
+    }
+
+    /** Effective settings with the password masked, for startup logs. */
+    public String describe() {
+        Map<String, String> shown = new TreeMap<>();
+        for (String key : values.stringPropertyNames()) {
+            shown.put(key, key.equals("db.password") ? "****" : values.getProperty(key));
+        }
+        return shown.toString();
+    }
+}
@@ -3,18 +3,43 @@ package db;
 import java.sql.*;
 
 public class DBHelper {
-    private static final String URL = "jdbc:mysql://localhost:3306/service_hub";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
+    private static volatile ConnectionPool pool;
 
-    /** Returns a new database connection. */
+    /** Borrows a pooled connection; closing it hands it back to the pool. */
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver"); // ✅ must load the driver
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found.", e);
+        return pool().borrow();
+    }
+
+    /** Lazily creates the shared pool the first time a DAO needs a connection. */
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBHelper.class) {
+                p = pool;
+                if (p == null) {
+                    DBConfig config = DBConfig.get();
+                    try {
+                        Class.forName(config.getDriverClass()); // ✅ must load the driver
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("JDBC Driver not found: " + config.getDriverClass(), e);
+                    }
+                    QueryMetrics metrics = QueryMetrics.registry();
+                    p = pool = new ConnectionPool(config.getUrl(), config.getDriverProperties(), config.getPoolSettings(),
+                            metrics.isEnabled() ? metrics : null);
+                }
+            }
+        }
+        return p;
+    }
+
+    /** Closes all pooled connections. Call once when the application exits. */
+    public static void shutdown() {
+        synchronized (DBHelper.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
         }
-        return DriverManager.getConnection(URL, USER, PASSWORD);
     }
 
     /** Closes resources safely */
@@ -0,0 +1,384 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement metrics for everything run on a connection from DBHelper: executions,
+ * errors, rows and a latency histogram per SQL template, plus how long getConnection()
+ * took (waiting for a free connection, validating or opening one).
+ *
+ * The pool wraps each statement it hands out; execute calls are timed and rows affected
+ * counted for updates and batches. A prepared statement's template is its SQL; for plain
+ * Statement SQL, literals are replaced with ? first, and the last PLAIN_SQL_CACHE raw texts
+ * are remembered so a repeated one is not normalised again. Multi-row statements get one
+ * template whatever their row count: repeated (?, ...) tuples and repeated UNION ALL SELECT
+ * arms are collapsed into one followed by "...". Once metrics.maxTemplates templates are
+ * known, further ones are counted together.
+ * Recording is a few counter increments, so it stays on by default. Rows returned are
+ * counted by a delegating {@link CountingResultSet}, one increment per next(); set
+ * metrics.countRows=false to hand out the driver's result sets untouched.
+ * Executions slower than slowlog.thresholdMs also go to the {@link SlowQueryLog}, with the
+ * values bound to them. JDBC can't read bound values back, so set* calls keep a reference
+ * to theirs while the log is on; nothing is copied or formatted unless the execution is slow.
+ *
+ * Settings (db.properties): metrics.enabled, metrics.maxTemplates, metrics.countRows.
+ */
+public class QueryMetrics {
+
+    // Histogram bucket upper bounds in microseconds; one more bucket holds everything slower
+    private static final long[] BUCKET_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000
+    };
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // VALUES (?, ?), (?, ?), ... with any number of rows
+    private static final Pattern REPEATED_TUPLE = Pattern.compile("(\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))(?:\\s*,\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))+");
+    // The same UNION ALL SELECT arm twice or more in a row, one per row (insertTimeSlots)
+    private static final Pattern REPEATED_UNION_ARM = Pattern.compile("( UNION ALL SELECT (?:(?! UNION ALL ).)+?)\\1+");
+    // Plain Statement SQL texts whose template is remembered; literals make most of them one-offs
+    private static final int PLAIN_SQL_CACHE = 256;
+
+    /** A latency distribution: count, mean, percentiles (bucket upper bounds) and max. */
+    public record Latency(long count, double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs) {}
+
+    /** One SQL template's counters since start-up (or the last reset). */
+    public record QueryStats(String sql, long executions, long errors, long rows, double totalMs, Latency latency) {}
+
+    /** getConnection() times; timeouts are borrows that gave up after pool.borrowTimeoutMs. */
+    public record PoolStats(long timeouts, Latency borrow) {}
+
+    private static volatile QueryMetrics instance;
+
+    private final boolean enabled;
+    private final int maxTemplates;
+    private final boolean countRows;
+    private final SlowQueryLog slowLog; // null: no slow-query log
+    private final ConcurrentHashMap<String, Template> templates = new ConcurrentHashMap<>();
+    // Raw prepared SQL -> its template when normalising changed the text; only a lookup shortcut
+    private final ConcurrentHashMap<String, Template> aliases = new ConcurrentHashMap<>();
+    // Raw plain Statement SQL -> its template, least recently used dropped first; guarded by itself
+    private final LinkedHashMap<String, Template> plainSql = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+            return size() > PLAIN_SQL_CACHE;
+        }
+    };
+    private volatile Template overflow = new Template("(other statements)");
+    private volatile Histogram connectionWait = new Histogram();
+    private final LongAdder borrowTimeouts = new LongAdder();
+
+    public QueryMetrics(boolean enabled, int maxTemplates) {
+        this(enabled, maxTemplates, false, null);
+    }
+
+    public QueryMetrics(boolean enabled, int maxTemplates, boolean countRows, SlowQueryLog slowLog) {
+        this.enabled = enabled;
+        this.maxTemplates = maxTemplates;
+        this.countRows = countRows;
+        this.slowLog = slowLog;
+    }
+
+    /** The process-wide registry, configured from DBConfig on first use. */
+    public static QueryMetrics registry() {
+        QueryMetrics m = instance;
+        if (m == null) {
+            synchronized (QueryMetrics.class) {
+                m = instance;
+                if (m == null) {
+                    DBConfig config = DBConfig.get();
+                    boolean enabled = config.getBoolean("metrics.enabled");
+                    m = instance = new QueryMetrics(enabled, config.getInt("metrics.maxTemplates"), config.getBoolean("metrics.countRows"),
+                            enabled ? SlowQueryLog.fromConfig(config) : null);
+                }
+            }
+        }
+        return m;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ---------------- reading -------------------
+
+    /** Every template's counters, most total time first. */
+    public List<QueryStats> snapshot() {
+        List<QueryStats> stats = new ArrayList<>();
+        for (Template t : templates.values()) stats.add(t.stats());
+        if (overflow.latency.count() > 0) stats.add(overflow.stats());
+        stats.sort(Comparator.comparingDouble(QueryStats::totalMs).reversed());
+        return stats;
+    }
+
+    public PoolStats connectionWait() {
+        return new PoolStats(borrowTimeouts.sum(), connectionWait.latency());
+    }
+
+    /** Starts every counter from zero, e.g. between load-test phases. */
+    public synchronized void reset() {
+        templates.clear();
+        aliases.clear();
+        synchronized (plainSql) {
+            plainSql.clear();
+        }
+        overflow = new Template("(other statements)");
+        connectionWait = new Histogram();
+        borrowTimeouts.reset();
+    }
+
+    /** The top templates by total time and the connection wait, as a text table. */
+    public String report(int top) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%8s %7s %10s %10s %8s %8s %8s %8s  %s%n",
+                "calls", "errors", "rows", "total ms", "avg ms", "p95 ms", "p99 ms", "max ms", "SQL"));
+        List<QueryStats> stats = snapshot();
+        for (QueryStats q : stats.subList(0, Math.min(top, stats.size()))) {
+            Latency l = q.latency();
+            String sql = q.sql().length() > 100 ? q.sql().substring(0, 97) + "..." : q.sql();
+            sb.append(String.format("%8d %7d %10d %10.1f %8.2f %8.2f %8.2f %8.2f  %s%n",
+                    q.executions(), q.errors(), q.rows(), q.totalMs(), l.meanMs(), l.p95Ms(), l.p99Ms(), l.maxMs(), sql));
+        }
+        PoolStats pool = connectionWait();
+        Latency w = pool.borrow();
+        sb.append(String.format("getConnection: %d calls, avg %.2f ms, p99 %.2f ms, max %.2f ms, %d timeouts%n",
+                w.count(), w.meanMs(), w.p99Ms(), w.maxMs(), pool.timeouts()));
+        return sb.toString();
+    }
+
+    // ---------------- recording (called by ConnectionPool) -------------------
+
+    void recordConnectionWait(long nanos) {
+        connectionWait.record(nanos);
+    }
+
+    void recordBorrowTimeout(long nanos) {
+        borrowTimeouts.increment();
+        connectionWait.record(nanos);
+    }
+
+    /** Wraps a statement the pool is handing out; owner is the pooled connection proxy. */
+    Statement instrument(Statement statement, Class<?> type, String sql, Connection owner) {
+        Template template = sql == null ? null : template(sql, true);
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, template, owner));
+    }
+
+    private Template plainTemplate(String sql) {
+        Template t;
+        synchronized (plainSql) {
+            t = plainSql.get(sql);
+        }
+        if (t == null) {
+            t = template(sql, false);
+            synchronized (plainSql) {
+                plainSql.put(sql, t);
+            }
+        }
+        return t;
+    }
+
+    private Template template(String sql, boolean prepared) {
+        Template t = templates.get(sql);
+        if (t == null) t = aliases.get(sql);
+        if (t != null) return t;
+
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        if (!prepared) {
+            normalized = NUMBER_LITERAL.matcher(STRING_LITERAL.matcher(normalized).replaceAll("?")).replaceAll("?");
+        }
+        normalized = REPEATED_TUPLE.matcher(normalized).replaceAll("$1, ...");
+        normalized = REPEATED_UNION_ARM.matcher(normalized).replaceAll("$1 ...");
+        t = templates.get(normalized);
+        if (t == null) {
+            if (templates.size() >= maxTemplates) return overflow;
+            t = templates.computeIfAbsent(normalized, Template::new);
+        }
+        // Prepared SQL comes from constants and builders, so the raw text is a safe shortcut for next time
+        if (prepared && !normalized.equals(sql) && aliases.size() < maxTemplates) aliases.putIfAbsent(sql, t);
+        return t;
+    }
+
+    // ---------------- internals -------------------
+
+    private static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_MICROS.length + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = nanos / 1000;
+            int i = 0;
+            while (i < BUCKET_MICROS.length && micros > BUCKET_MICROS[i]) i++;
+            buckets.incrementAndGet(i);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        double totalMs() {
+            return totalNanos.sum() / 1e6;
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        Latency latency() {
+            long n = count.sum();
+            double max = maxNanos.get() / 1e6;
+            if (n == 0) return new Latency(0, 0, 0, 0, 0, 0);
+            return new Latency(n, totalMs() / n, percentile(n, 50, max), percentile(n, 95, max), percentile(n, 99, max), max);
+        }
+
+        // Upper bound of the bucket holding the p-th percentile, never above the max seen
+        private double percentile(long n, double p, double maxMs) {
+            long rank = (long) Math.ceil(p / 100.0 * n);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return i < BUCKET_MICROS.length ? Math.min(BUCKET_MICROS[i] / 1000.0, maxMs) : maxMs;
+            }
+            return maxMs;
+        }
+    }
+
+    private static final class Template {
+        final String sql;
+        final Histogram latency = new Histogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+
+        Template(String sql) {
+            this.sql = sql;
+        }
+
+        QueryStats stats() {
+            return new QueryStats(sql, latency.count(), errors.sum(), rows.sum(), latency.totalMs(), latency.latency());
+        }
+    }
+
+    /** Times execute calls and hands out row-counting result sets. */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement real;
+        private final Template prepared; // null for plain statements
+        private final Connection owner;
+        private final boolean captureParams; // slow-query log on and a prepared statement
+        private Template last;
+        // Bind values by parameter index (slot 0 unused); created by the first set* call
+        private Object[] params;
+        private int maxIndex;
+
+        StatementHandler(Statement real, Template prepared, Connection owner) {
+            this.real = real;
+            this.prepared = prepared;
+            this.owner = owner;
+            this.last = prepared;
+            this.captureParams = slowLog != null && prepared != null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "getConnection":
+                    return owner;
+                case "getResultSet": {
+                    Object rs = call(method, args);
+                    return rs == null || last == null || !countRows ? rs : new CountingResultSet((ResultSet) rs, last.rows, (Statement) proxy);
+                }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented[" + real + "]";
+                case "clearParameters":
+                    if (params != null) {
+                        Arrays.fill(params, null);
+                        maxIndex = 0;
+                    }
+                    return call(method, args);
+                default:
+                    if (!name.startsWith("execute")) {
+                        // setString(1, ...), setNull(2, ...), setObject(3, ...)
+                        if (captureParams && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                            bound(index, name.equals("setNull") ? null : args[1]);
+                        }
+                        return call(method, args);
+                    }
+            }
+
+            // execute / executeQuery / executeUpdate / executeBatch / executeLarge*
+            Template t = args != null && args.length > 0 && args[0] instanceof String sql ? plainTemplate(sql)
+                    : prepared != null ? prepared : template("(statement batch)", true);
+            last = t;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } catch (Throwable e) {
+                long elapsed = System.nanoTime() - start;
+                t.latency.record(elapsed);
+                t.errors.increment();
+                if (slowLog != null && slowLog.isSlow(elapsed)) slowLog.record(t.sql, boundParams(), elapsed, e);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            t.latency.record(elapsed);
+            if (slowLog != null && slowLog.isSlow(elapsed)) slowLog.record(t.sql, boundParams(), elapsed, null);
+
+            if (result instanceof ResultSet rs) return countRows ? new CountingResultSet(rs, t.rows, (Statement) proxy) : rs;
+            if (result instanceof Integer n && n > 0) {
+                t.rows.add(n);
+            } else if (result instanceof Long n && n > 0) {
+                t.rows.add(n);
+            } else if (result instanceof int[] counts) {
+                for (int n : counts) if (n > 0) t.rows.add(n);
+            } else if (result instanceof long[] counts) {
+                for (long n : counts) if (n > 0) t.rows.add(n);
+            }
+            return result;
+        }
+
+        private void bound(int index, Object value) {
+            if (index < 1) return;
+            if (params == null) params = new Object[Math.max(8, index + 1)];
+            else if (index >= params.length) params = Arrays.copyOf(params, Math.max(index + 1, params.length * 2));
+            params[index] = value;
+            maxIndex = Math.max(maxIndex, index);
+        }
+
+        // What the slow-query log expects: values by index, slot 0 unused; null if none were bound
+        private List<Object> boundParams() {
+            return params == null ? null : Arrays.asList(params).subList(0, maxIndex + 1);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
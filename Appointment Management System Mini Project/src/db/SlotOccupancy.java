@@ -0,0 +1,137 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * The slot_occupancy counters: how many bookings each time slot holds on each date.
+ *
+ * Every write that adds or removes a booking with a slot_id and appointment_date updates
+ * that occurrence's counter in the same transaction, so availability is a primary-key
+ * read instead of a COUNT over bookings, and only dates that have bookings have a row.
+ * The counter row is also the occurrence's lock: reserve() holds it until the booking
+ * commits, so concurrent bookers of one slot on one date queue up there.
+ *
+ * Counters can only drift through writes that bypass these methods (manual SQL, an older
+ * client); rebuild() and tools.SlotOccupancyReconciler recompute them from bookings.
+ *
+ * All methods run on the caller's connection and transaction.
+ */
+public final class SlotOccupancy {
+
+    // Creates a missing counter row; a no-op that still locks an existing one
+    private static final String ENSURE_ROW_SQL =
+            "INSERT INTO slot_occupancy (slot_id, appointment_date, booked) VALUES (?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE slot_id = slot_id";
+    public static final String RESERVE_SQL =
+            "UPDATE slot_occupancy SET booked = booked + 1 WHERE slot_id = ? AND appointment_date = ? AND booked < ?";
+    private static final String ADD_SQL =
+            "INSERT INTO slot_occupancy (slot_id, appointment_date, booked) VALUES (?, ?, 1) " +
+            "ON DUPLICATE KEY UPDATE booked = booked + 1";
+    public static final String RELEASE_SQL =
+            "UPDATE slot_occupancy SET booked = booked - 1 WHERE slot_id = ? AND appointment_date = ? AND booked > 0";
+
+    // The service's slots, for rebuild()
+    private static final String SERVICE_SLOTS =
+            "SELECT ts.slot_id FROM time_slots ts JOIN service_days sd ON ts.service_day_id = sd.service_day_id " +
+            "WHERE sd.service_id = ?";
+    // A row for every date the service's slots have bookings on
+    public static final String ENSURE_SERVICE_ROWS_SQL =
+            "INSERT INTO slot_occupancy (slot_id, appointment_date, booked) " +
+            "SELECT DISTINCT b.slot_id, b.appointment_date, 0 FROM bookings b " +
+            "WHERE b.slot_id IN (" + SERVICE_SLOTS + ") AND b.appointment_date IS NOT NULL " +
+            "ON DUPLICATE KEY UPDATE slot_id = slot_occupancy.slot_id";
+    private static final String ACTUAL_COUNT =
+            "(SELECT COUNT(*) FROM bookings b WHERE b.slot_id = slot_occupancy.slot_id " +
+            "AND b.appointment_date = slot_occupancy.appointment_date)";
+    public static final String REBUILD_SERVICE_SQL =
+            "UPDATE slot_occupancy SET booked = " + ACTUAL_COUNT +
+            " WHERE slot_id IN (" + SERVICE_SLOTS + ") AND booked <> " + ACTUAL_COUNT;
+
+    // Occurrences of the service's slots from a date on that hold more bookings than it takes
+    public static final String OVER_CAPACITY_SQL =
+            "SELECT COUNT(*) FROM slot_occupancy o " +
+            "JOIN time_slots ts ON ts.slot_id = o.slot_id " +
+            "JOIN service_days sd ON sd.service_day_id = ts.service_day_id " +
+            "JOIN services s ON s.service_id = sd.service_id " +
+            "WHERE sd.service_id = ? AND o.appointment_date >= ? AND o.booked > s.num_customers";
+
+    // RESERVE_SQL, RELEASE_SQL, ENSURE_SERVICE_ROWS_SQL, REBUILD_SERVICE_SQL and OVER_CAPACITY_SQL are public for tools.ExplainCheck
+
+    private SlotOccupancy() {}
+
+    /**
+     * Takes one place in the slot on the date if it has fewer than capacity bookings there.
+     * Returns false if it is full. The counter row stays locked until the caller commits or
+     * rolls back, so the booking row must be inserted in the same transaction.
+     */
+    public static boolean reserve(Connection conn, int slotId, LocalDate date, int capacity) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ENSURE_ROW_SQL)) {
+            ps.setInt(1, slotId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(RESERVE_SQL)) {
+            ps.setInt(1, slotId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setInt(3, capacity);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /** Counts a booking without checking capacity (for writes that don't enforce it). */
+    public static void add(Connection conn, int slotId, LocalDate date) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ADD_SQL)) {
+            ps.setInt(1, slotId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.executeUpdate();
+        }
+    }
+
+    /** Frees the place of a booking that is being deleted. */
+    public static void release(Connection conn, int slotId, LocalDate date) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(RELEASE_SQL)) {
+            ps.setInt(1, slotId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Recomputes the counters of a service's slots from bookings, for writes that move
+     * bookings between slots in bulk. Locks those counters until the caller's transaction
+     * ends. Returns how many counters were wrong.
+     */
+    public static int rebuild(Connection conn, int serviceId) throws SQLException {
+        // 1. Make sure every booked date has a row, which also locks them against bookers
+        try (PreparedStatement ps = conn.prepareStatement(ENSURE_SERVICE_ROWS_SQL)) {
+            ps.setInt(1, serviceId);
+            ps.executeUpdate();
+        }
+        // 2. Fix the ones that differ from bookings
+        try (PreparedStatement ps = conn.prepareStatement(REBUILD_SERVICE_SQL)) {
+            ps.setInt(1, serviceId);
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * How many of the service's slot dates on or after from hold more bookings than its
+     * num_customers. That happens when capacity is lowered or bookings are moved onto a
+     * slot without reserve(); nothing is cancelled, so callers report it.
+     */
+    public static int overCapacity(Connection conn, int serviceId, LocalDate from) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(OVER_CAPACITY_SQL)) {
+            ps.setInt(1, serviceId);
+            ps.setDate(2, Date.valueOf(from));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
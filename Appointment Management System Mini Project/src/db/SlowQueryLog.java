@@ -0,0 +1,195 @@
+package db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Writes statements that took longer than a threshold to a rotating log file: the SQL
+ * template, its bind parameters, the time taken, the DAO method that ran it and, if
+ * enabled, the EXPLAIN output. Failed statements over the threshold (lock wait timeouts)
+ * are logged too, with the error.
+ *
+ * String parameters are masked by default (only their length is written), since they
+ * carry customer names, phones and emails; numbers, dates and NULLs are written as is.
+ * EXPLAIN runs with the same parameters, for SELECTs only, at most once per template per
+ * EXPLAIN_INTERVAL_MS. It runs after the statement has returned, on a background thread
+ * and a separate pooled connection, so it never holds up the caller or its transaction's
+ * locks; the entry is written once EXPLAIN is done.
+ *
+ * Fed by QueryMetrics, so it needs metrics.enabled=true.
+ * Settings (db.properties): slowlog.thresholdMs (0 disables), slowlog.explain,
+ * slowlog.maskParameters, slowlog.file, slowlog.maxFileKB, slowlog.maxFiles.
+ */
+public class SlowQueryLog {
+
+    private static final long EXPLAIN_INTERVAL_MS = 10 * 60 * 1000;
+    private static final int MAX_SQL_CHARS = 4000;
+    private static final int MAX_PENDING_EXPLAINS = 16;
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final boolean maskParameters;
+    private final Logger logger;
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    // One daemon thread; if it falls behind, entries are written without EXPLAIN
+    private final ExecutorService explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_EXPLAINS), r -> {
+                Thread t = new Thread(r, "slow-query-explain");
+                t.setDaemon(true);
+                return t;
+            });
+
+    public SlowQueryLog(long thresholdMs, boolean explain, boolean maskParameters, Logger logger) {
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.explain = explain;
+        this.maskParameters = maskParameters;
+        this.logger = logger;
+    }
+
+    /** The log described by DBConfig, or null if slowlog.thresholdMs is 0 or the file can't be opened. */
+    static SlowQueryLog fromConfig(DBConfig config) {
+        int thresholdMs = config.getInt("slowlog.thresholdMs");
+        if (thresholdMs == 0) return null;
+
+        String pattern = config.get("slowlog.file", "logs/slow-queries.%g.log").trim();
+        int maxFileKB = config.getInt("slowlog.maxFileKB");
+        int maxFiles = config.getInt("slowlog.maxFiles");
+        try {
+            Path parent = Paths.get(pattern).toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            FileHandler handler = new FileHandler(pattern, maxFileKB * 1024, maxFiles, true);
+            handler.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord record) {
+                    return record.getMessage() + System.lineSeparator();
+                }
+            });
+
+            Logger logger = Logger.getLogger("servicehub.slowqueries");
+            logger.setUseParentHandlers(false);
+            logger.addHandler(handler);
+            return new SlowQueryLog(thresholdMs,
+                    config.getBoolean("slowlog.explain"),
+                    config.getBoolean("slowlog.maskParameters"),
+                    logger);
+        } catch (IOException e) {
+            System.err.println("=== SLOW QUERY LOG disabled: cannot open " + pattern + ": " + e.getMessage() + " ===");
+            return null;
+        }
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /** Logs one slow execution; params are the bound values by index (1-based, may be null). */
+    void record(String sql, List<Object> params, long nanos, Throwable failure) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(LocalDateTime.now()).append(String.format(" slow query %.1f ms (threshold %d ms)", nanos / 1e6, thresholdNanos / 1_000_000));
+        sb.append(" in ").append(caller()).append(System.lineSeparator());
+        sb.append("  SQL:    ").append(sql.length() > MAX_SQL_CHARS ? sql.substring(0, MAX_SQL_CHARS) + "..." : sql).append(System.lineSeparator());
+        if (params != null && !params.isEmpty()) {
+            sb.append("  Params:");
+            for (int i = 1; i < params.size(); i++) sb.append(" [").append(i).append("] ").append(format(params.get(i)));
+            sb.append(System.lineSeparator());
+        }
+        if (failure != null) sb.append("  Failed: ").append(failure).append(System.lineSeparator());
+        if (explain && failure == null && shouldExplain(sql)) {
+            // The caller keeps setting parameters on its statement, so EXPLAIN gets a copy
+            List<Object> bound = params == null ? null : new ArrayList<>(params);
+            try {
+                explainer.execute(() -> logger.log(Level.INFO, sb.append(explain(sql, bound)).toString()));
+                return;
+            } catch (RejectedExecutionException e) {
+                sb.append("  EXPLAIN: (skipped: ").append(MAX_PENDING_EXPLAINS).append(" already pending)").append(System.lineSeparator());
+            }
+        }
+        logger.log(Level.INFO, sb.toString());
+    }
+
+    // ---------------- internals -------------------
+
+    // The first two frames outside the instrumentation, e.g. SlotOccupancy.reserve <- AppointmentDAO.reserveBooking
+    private static String caller() {
+        List<String> frames = StackWalker.getInstance().walk(s -> s
+                .filter(f -> {
+                    String c = f.getClassName();
+                    return !c.startsWith("java.") && !c.startsWith("jdk.") && !c.startsWith("sun.") && !c.startsWith("com.sun.")
+                            && !c.contains("$Proxy") && !c.startsWith("db.QueryMetrics") && !c.startsWith("db.SlowQueryLog")
+                            && !c.startsWith("db.ConnectionPool");
+                })
+                .limit(2)
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .toList());
+        return frames.isEmpty() ? "(unknown)" : String.join(" <- ", frames);
+    }
+
+    private String format(Object value) {
+        if (value == null) return "NULL";
+        if (value instanceof Number || value instanceof Boolean || value instanceof Date || value instanceof Temporal) {
+            return value.toString();
+        }
+        if (value instanceof String s) return maskParameters ? "'<" + s.length() + " chars>'" : "'" + s + "'";
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    private boolean shouldExplain(String sql) {
+        String head = sql.stripLeading().toUpperCase();
+        if (!head.startsWith("SELECT") && !head.startsWith("WITH")) return false;
+        long now = System.currentTimeMillis();
+        Long last = lastExplained.get(sql);
+        if (last != null && now - last < EXPLAIN_INTERVAL_MS) return false;
+        lastExplained.put(sql, now);
+        return true;
+    }
+
+    // Runs on the explainer thread with its own pooled connection
+    private static String explain(String sql, List<Object> params) {
+        StringBuilder sb = new StringBuilder("  EXPLAIN:").append(System.lineSeparator());
+        try (Connection pooled = DBHelper.getConnection();
+             // The driver's own connection, so EXPLAIN is neither measured nor logged as slow itself
+             PreparedStatement ps = pooled.unwrap(Connection.class).prepareStatement("EXPLAIN " + sql)) {
+            if (params != null) {
+                for (int i = 1; i < params.size(); i++) ps.setObject(i, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData md = rs.getMetaData();
+                while (rs.next()) {
+                    sb.append("   ");
+                    for (int c = 1; c <= md.getColumnCount(); c++) {
+                        Object v = rs.getObject(c);
+                        if (v != null) sb.append(' ').append(md.getColumnLabel(c)).append('=').append(v);
+                    }
+                    sb.append(System.lineSeparator());
+                }
+            }
+        } catch (SQLException e) {
+            sb.append("    (failed: ").append(e.getMessage()).append(')').append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
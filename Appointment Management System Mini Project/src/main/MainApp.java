@@ -167,6 +167,19 @@ public Scene getMainScene() {
     return mainScene;
 }
 
+    @Override
+    public void init() {
+        // Fail fast on a bad db.properties instead of on the first DAO call
+        System.out.println("=== DB config: " + db.DBConfig.get().describe() + " ===");
+    }
+
+    @Override
+    public void stop() {
+        // Release pooled DB connections on exit
+        System.out.println("=== Catalog cache: " + db.CatalogCache.catalog().stats() + " ===");
+        db.DBHelper.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,318 @@
+package tools;
+
+import company.ServiceDAO;
+import company.ServiceSessionManager.ServiceConfig;
+import company.ServiceSessionManager.TimeSlot;
+import customer.AppointmentDAO;
+import customer.Booking;
+import customer.BookingResult;
+import customer.ServiceOption;
+import customer.SlotAvailability;
+import db.DBHelper;
+import db.QueryMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test for the customer booking path: N simulated customers go through the same
+ * DAO calls as AppointmentBooking, with think times between the steps, for a fixed time.
+ *
+ * One session is: company (getCompanies, getCompanyDetails, getServicesByCompany), then a
+ * service (getServiceDetails, getSlotsByDate over the booking window), then a free slot on
+ * a random date, then submit. Submit is reserveBooking, as on the booking screen, or with
+ * mode=check-then-save the older isSlotAvailable + saveBooking pair, which has no lock
+ * between the check and the insert. Both reload the booking window afterwards, like the
+ * screen does. Think times are exponential around thinkMs.
+ *
+ * Runs against a throwaway company with a few services offered every day, each slot
+ * taking `capacity` customers, so that customers compete for the same places. Reports
+ * booking throughput, latency percentiles per step, submit outcomes and error rate,
+ * and afterwards counts slot/date occurrences holding more bookings than their capacity.
+ * The DAOs share the configured pool (pool.maxSize), so borrow timeouts show up as errors.
+ * With metrics.enabled, the slowest statements and the getConnection() wait follow.
+ *
+ * Usage: java tools.BookingLoadGenerator [customers=50] [seconds=60] [thinkMs=500] [capacity=3] [mode=reserve|check-then-save]
+ * Exits with status 1 if any slot was overbooked.
+ */
+public class BookingLoadGenerator {
+
+    private static final int SERVICES = 3;
+    private static final String[] DAYS = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+    private static final String[] SLOTS = {"09:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00", "14:00 - 15:00"};
+    private static final String[] STEPS = {"company", "service", "submit"};
+
+    public static void main(String[] args) throws Exception {
+        // Lock waits are part of the workload; don't let a read timeout cut them off
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 60;
+        int thinkMs = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        boolean checkThenSave = args.length > 4 && args[4].equals("check-then-save");
+
+        String tag = "load_" + System.currentTimeMillis();
+        int companyId = createFixture(tag, capacity);
+        boolean ok = false;
+
+        try {
+            long deadline = System.nanoTime() + (long) (seconds * 1e9);
+            ExecutorService pool = Executors.newFixedThreadPool(customers);
+            List<Future<Customer>> running = new ArrayList<>();
+            for (int i = 0; i < customers; i++) {
+                Customer customer = new Customer(i, tag, thinkMs, checkThenSave);
+                running.add(pool.submit(() -> customer.run(deadline)));
+            }
+            long started = System.nanoTime();
+
+            Customer total = new Customer(-1, tag, thinkMs, checkThenSave);
+            for (Future<Customer> f : running) total.merge(f.get());
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            pool.shutdown();
+
+            int[] overbooked = overbooked(companyId);
+            int counterDrift = counterDrift(companyId);
+            report(total, customers, elapsed, checkThenSave);
+            if (QueryMetrics.registry().isEnabled()) {
+                System.out.println("Slowest statements by total time:");
+                System.out.println(QueryMetrics.registry().report(10));
+            }
+            System.out.println("Overbooked slot/dates:   " + overbooked[0] + " (" + overbooked[1] + " bookings over capacity)");
+            System.out.println("Counters off by bookings: " + counterDrift);
+
+            ok = overbooked[0] == 0;
+            System.out.println(ok ? "✅ PASS: no slot was overbooked" : "❌ FAIL: capacity violated");
+        } finally {
+            Fixtures.dropCompany(companyId);
+            DBHelper.shutdown();
+        }
+        if (!ok) System.exit(1);
+    }
+
+    // ---------------- simulated customer -------------------
+
+    /** One customer thread: repeats booking sessions until the deadline, recording as it goes. */
+    private static final class Customer {
+        private final int id;
+        private final String company;
+        private final int thinkMs;
+        private final boolean checkThenSave;
+        private final Random random;
+        private final AppointmentDAO dao = new AppointmentDAO();
+
+        final Map<String, List<Long>> latencies = new LinkedHashMap<>();
+        final Map<String, Integer> outcomes = new TreeMap<>();
+        int sessions;
+        int submits;
+        int errors;
+
+        Customer(int id, String company, int thinkMs, boolean checkThenSave) {
+            this.id = id;
+            this.company = company;
+            this.thinkMs = thinkMs;
+            this.checkThenSave = checkThenSave;
+            this.random = new Random(id);
+            for (String step : STEPS) latencies.put(step, new ArrayList<>());
+        }
+
+        Customer run(long deadline) throws InterruptedException {
+            think(deadline); // customers don't all arrive at once
+            while (System.nanoTime() < deadline) {
+                session(deadline);
+                sessions++;
+            }
+            return this;
+        }
+
+        private void session(long deadline) throws InterruptedException {
+            // 1. Pick the company: list, details and its services
+            long t = System.nanoTime();
+            List<String> companies = dao.getCompanies();
+            dao.getCompanyDetails(company);
+            List<ServiceOption> services = dao.getServicesByCompany(company);
+            record("company", t);
+            if (!companies.contains(company) || services.isEmpty()) {
+                errors++;
+                return;
+            }
+            if (!think(deadline)) return;
+
+            // 2. Pick a service: details and the free slots in the booking window
+            ServiceOption service = services.get(random.nextInt(services.size()));
+            t = System.nanoTime();
+            boolean found = dao.getServiceDetails(service.getServiceId()) != null;
+            Map<LocalDate, List<SlotAvailability>> window = loadWindow(service);
+            record("service", t);
+            if (!found) {
+                errors++;
+                return;
+            }
+
+            // 3. Pick a date and a slot that still show room, then fill in the form
+            List<SlotAvailability> free = new ArrayList<>();
+            window.values().forEach(day -> day.stream().filter(SlotAvailability::isAvailable).forEach(free::add));
+            if (free.isEmpty()) {
+                outcome("NO_FREE_SLOT");
+                return;
+            }
+            SlotAvailability pick = free.get(random.nextInt(free.size()));
+            if (!think(deadline)) return;
+
+            // 4. Submit
+            Booking booking = new Booking(pick.getSlotId(), pick.getDate(), company, service.getServiceName(), pick.getSlot(),
+                    "Load Customer " + id, "0770000000", "load" + id + "@example.com", "");
+            t = System.nanoTime();
+            String result = checkThenSave ? checkThenSave(service, booking) : dao.reserveBooking(booking).name();
+            loadWindow(service);
+            record("submit", t);
+            submits++;
+            if (result.equals(BookingResult.FAILED.name())) errors++;
+            outcome(result);
+        }
+
+        // The pre-reserveBooking submit: nothing holds the place between the check and the insert
+        private String checkThenSave(ServiceOption service, Booking booking) {
+            if (!dao.isSlotAvailable(service.getServiceId(), booking.getDate(), booking.getSlot())) {
+                return BookingResult.SLOT_FULL.name();
+            }
+            int companyId = dao.getCompanyId(company);
+            return dao.saveBooking(booking, companyId) ? BookingResult.BOOKED.name() : BookingResult.FAILED.name();
+        }
+
+        private Map<LocalDate, List<SlotAvailability>> loadWindow(ServiceOption service) {
+            LocalDate today = LocalDate.now();
+            return dao.getSlotsByDate(service.getServiceId(), today, today.plusDays(AppointmentDAO.bookingWindowDays()));
+        }
+
+        // Exponential think time around thinkMs, capped so one customer can't stall for long
+        private boolean think(long deadline) throws InterruptedException {
+            if (thinkMs > 0) {
+                long ms = (long) Math.min(-Math.log(1 - random.nextDouble()) * thinkMs, 5.0 * thinkMs);
+                Thread.sleep(ms);
+            }
+            return System.nanoTime() < deadline;
+        }
+
+        private void record(String step, long start) {
+            latencies.get(step).add(System.nanoTime() - start);
+        }
+
+        private void outcome(String name) {
+            outcomes.merge(name, 1, Integer::sum);
+        }
+
+        void merge(Customer other) {
+            other.latencies.forEach((step, values) -> latencies.get(step).addAll(values));
+            other.outcomes.forEach((name, count) -> outcomes.merge(name, count, Integer::sum));
+            sessions += other.sessions;
+            submits += other.submits;
+            errors += other.errors;
+        }
+    }
+
+    // ---------------- report -------------------
+
+    private static void report(Customer total, int customers, double elapsed, boolean checkThenSave) {
+        int booked = total.outcomes.getOrDefault(BookingResult.BOOKED.name(), 0);
+        System.out.println("Submit path:       " + (checkThenSave ? "isSlotAvailable + saveBooking" : "reserveBooking"));
+        System.out.printf("Customers:         %d for %.1f s%n", customers, elapsed);
+        System.out.println("Sessions:          " + total.sessions);
+        System.out.printf("Bookings:          %d (%.1f/s)%n", booked, booked / elapsed);
+        System.out.println("Submit outcomes:   " + total.outcomes);
+        int attempts = total.sessions == 0 ? 1 : total.sessions;
+        System.out.printf("Errors:            %d (%.2f%% of sessions)%n", total.errors, 100.0 * total.errors / attempts);
+
+        System.out.printf("%n%-10s %8s %9s %9s %9s %9s %9s%n", "Step", "count", "avg ms", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String step : STEPS) {
+            List<Long> values = total.latencies.get(step);
+            if (values.isEmpty()) continue;
+            Collections.sort(values);
+            double sum = 0;
+            for (long v : values) sum += v;
+            System.out.printf("%-10s %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", step, values.size(), sum / values.size() / 1e6,
+                    percentile(values, 50) / 1e6, percentile(values, 95) / 1e6, percentile(values, 99) / 1e6,
+                    values.get(values.size() - 1) / 1e6);
+        }
+        System.out.println();
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static long percentile(List<Long> sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+
+    // ---------------- checks -------------------
+
+    /** {occurrences over capacity, bookings over capacity} for the company's slots. */
+    private static int[] overbooked(int companyId) throws SQLException {
+        String sql = "SELECT COUNT(*), COALESCE(SUM(x.booked - x.capacity), 0) FROM ("
+                   + "SELECT COUNT(*) AS booked, MAX(s.num_customers) AS capacity FROM bookings b "
+                   + "JOIN services s ON s.service_id = b.service_id "
+                   + "WHERE b.company_id = ? AND b.slot_id IS NOT NULL AND b.appointment_date IS NOT NULL "
+                   + "GROUP BY b.slot_id, b.appointment_date) x WHERE x.booked > x.capacity";
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new int[]{rs.getInt(1), rs.getInt(2)};
+            }
+        }
+    }
+
+    // Booked places in slot_occupancy minus stored bookings; non-zero means a write skipped the counters
+    private static int counterDrift(int companyId) throws SQLException {
+        String sql = "SELECT (SELECT COALESCE(SUM(o.booked), 0) FROM slot_occupancy o "
+                   + "JOIN time_slots ts ON ts.slot_id = o.slot_id "
+                   + "JOIN service_days sd ON sd.service_day_id = ts.service_day_id "
+                   + "JOIN services s ON s.service_id = sd.service_id WHERE s.company_id = ?) "
+                   + "- (SELECT COUNT(*) FROM bookings WHERE company_id = ? AND slot_id IS NOT NULL AND appointment_date IS NOT NULL)";
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, companyId);
+            ps.setInt(2, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // ---------------- fixture -------------------
+
+    private static int createFixture(String tag, int capacity) throws SQLException {
+        int companyId;
+        try (Connection conn = DBHelper.getConnection()) {
+            companyId = Fixtures.createCompany(conn, tag, "Load");
+        }
+
+        Map<String, List<TimeSlot>> schedule = new LinkedHashMap<>();
+        for (String day : DAYS) {
+            List<TimeSlot> slots = new ArrayList<>();
+            for (String slot : SLOTS) {
+                String[] times = slot.split(" - ");
+                slots.add(new TimeSlot(times[0], times[1]));
+            }
+            schedule.put(day, slots);
+        }
+        for (int s = 1; s <= SERVICES; s++) {
+            ServiceDAO.saveService(new ServiceConfig(0, tag + " Service " + s, capacity, "Load", "Test", "Tester",
+                    "load fixture", true, schedule), companyId);
+        }
+        return companyId;
+    }
+}
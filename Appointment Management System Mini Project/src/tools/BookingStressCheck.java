@@ -0,0 +1,136 @@
+package tools;
+
+import customer.AppointmentDAO;
+import customer.Booking;
+import customer.BookingResult;
+import db.DBHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Concurrency check for AppointmentDAO.reserveBooking.
+ *
+ * Creates a throwaway company with one service/slot of the given capacity, lets many
+ * threads book that slot for the same date at the same moment, and verifies the slot never holds more
+ * bookings than its capacity and its slot_occupancy counter matches the bookings.
+ * The fixture is removed afterwards.
+ *
+ * Usage: java tools.BookingStressCheck [capacity=5] [bookers=50]
+ * Exits with status 1 if the slot was overbooked.
+ */
+public class BookingStressCheck {
+
+    private static final String DAY = "Mon";
+    private static final String SLOT = "09:00 - 10:00";
+
+    public static void main(String[] args) throws Exception {
+        // Lock waits are part of the workload; don't let a read timeout cut them off
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int bookers = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        String tag = "stress_" + System.currentTimeMillis();
+        int companyId = createFixture(tag, capacity);
+        boolean ok = false;
+
+        try {
+            Map<BookingResult, Integer> outcomes = runBookers(tag, bookers);
+            int stored = countBookings(companyId);
+            int counter = occupancy(companyId);
+
+            System.out.println("Capacity:         " + capacity);
+            System.out.println("Parallel bookers: " + bookers);
+            System.out.println("Outcomes:         " + outcomes);
+            System.out.println("Rows in bookings: " + stored);
+            System.out.println("Slot counter:     " + counter);
+
+            int booked = outcomes.getOrDefault(BookingResult.BOOKED, 0);
+            ok = stored <= capacity && booked == stored && booked == Math.min(capacity, bookers) && counter == stored;
+            System.out.println(ok ? "✅ PASS: no overbooking" : "❌ FAIL: capacity not enforced");
+        } finally {
+            Fixtures.dropCompany(companyId);
+            DBHelper.shutdown();
+        }
+        if (!ok) System.exit(1);
+    }
+
+    private static Map<BookingResult, Integer> runBookers(String tag, int bookers) throws Exception {
+        AppointmentDAO dao = new AppointmentDAO();
+        LocalDate date = LocalDate.now().with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)); // DAY
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingResult>> results = new ArrayList<>();
+
+        for (int i = 0; i < bookers; i++) {
+            Booking b = new Booking(0, date, tag, tag, SLOT, "Customer " + i, "000", "c" + i + "@example.com", "");
+            results.add(pool.submit(() -> {
+                start.await();
+                return dao.reserveBooking(b);
+            }));
+        }
+        start.countDown(); // release everyone at once
+
+        Map<BookingResult, Integer> outcomes = new EnumMap<>(BookingResult.class);
+        for (Future<BookingResult> f : results) outcomes.merge(f.get(), 1, Integer::sum);
+        pool.shutdown();
+        return outcomes;
+    }
+
+    // ---------------- fixture -------------------
+
+    private static int createFixture(String tag, int capacity) throws SQLException {
+        try (Connection conn = DBHelper.getConnection()) {
+            int companyId = Fixtures.createCompany(conn, tag, "Stress");
+            int staffId = Fixtures.insert(conn, "INSERT INTO staff (company_id, first_name, last_name, role) VALUES (?, 'Stress', 'Test', 'Tester')",
+                    companyId);
+            int serviceId = Fixtures.insert(conn, "INSERT INTO services (service_name, num_customers, description, company_id, staff_id) VALUES (?, ?, 'stress fixture', ?, ?)",
+                    tag, capacity, companyId, staffId);
+            int dayId = Fixtures.insert(conn, "INSERT INTO service_days (service_id, day_abbr) VALUES (?, ?)",
+                    serviceId, DAY.toLowerCase());
+            String[] times = SLOT.split(" - ");
+            Fixtures.exec(conn, "INSERT INTO time_slots (service_day_id, start_time, end_time) VALUES (?, ?, ?)",
+                    dayId, times[0], times[1]);
+            return companyId;
+        }
+    }
+
+    private static int countBookings(int companyId) throws SQLException {
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM bookings WHERE company_id = ?")) {
+            ps.setInt(1, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static int occupancy(int companyId) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(o.booked), 0) FROM slot_occupancy o "
+                   + "JOIN time_slots ts ON ts.slot_id = o.slot_id "
+                   + "JOIN service_days sd ON sd.service_day_id = ts.service_day_id "
+                   + "JOIN services s ON s.service_id = sd.service_id WHERE s.company_id = ?";
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
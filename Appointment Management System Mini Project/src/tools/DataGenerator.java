@@ -0,0 +1,393 @@
+package tools;
+
+import customer.AppointmentDAO;
+import customer.Booking;
+import db.DBHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills SERVICE_HUB with synthetic companies, profiles, staff, services, schedules and
+ * bookings at a chosen scale, for benchmarks and load tests.
+ *
+ * Each company is generated from its own Random (seed and company number), so the same
+ * seed always produces the same rows whatever the thread count; only the generated ids
+ * depend on insert order. Dates are relative to the day it runs: bookings cover the last
+ * year and the booking window ahead, and never exceed a slot's capacity on a date.
+ * slot_occupancy is filled to match.
+ *
+ * Companies are written in parallel, one transaction per company, with batched inserts.
+ * Usernames are gen&lt;seed&gt;_&lt;n&gt; with the password "password". Service names come from a
+ * short list per business type, so companies of the same type share them, as real ones do.
+ *
+ * Usage: java tools.DataGenerator [companies=100] [servicesPerCompany=10] [bookingsPerService=200] [threads=4] [seed=42]
+ *        java tools.DataGenerator --drop [seed=42]     (removes what that seed generated)
+ */
+public class DataGenerator {
+
+    private static final String PASSWORD = "password";
+    private static final int BATCH = 1000;
+    private static final int HISTORY_DAYS = 365;
+    // Tries to find a slot/date with room before a booking is given up
+    private static final int BOOKING_TRIES = 5;
+
+    private static final String[] DAYS = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+    private static final String[] BUSINESS_TYPES = {"Salon", "Clinic", "Dental", "Fitness", "Spa", "Tutoring"};
+    private static final String[][] SERVICE_KINDS = {
+            {"Haircut", "Colouring", "Blow Dry", "Beard Trim", "Manicure", "Pedicure"},
+            {"General Consultation", "Follow-up", "Vaccination", "Health Check", "Blood Test"},
+            {"Check-up", "Cleaning", "Filling", "Whitening", "Orthodontic Review"},
+            {"Personal Training", "Yoga", "Pilates", "Spin Class", "Nutrition Plan"},
+            {"Massage", "Facial", "Sauna", "Body Scrub", "Aromatherapy"},
+            {"Maths", "Physics", "English", "Chemistry", "Exam Prep"}
+    };
+    private static final String[] ROLES = {"Senior", "Junior", "Specialist", "Assistant"};
+    private static final String[] NAME_WORDS = {"Lotus", "Harbour", "Oak", "Summit", "Bright", "Cedar", "Willow", "Golden", "Blue", "Maple"};
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Liam", "Sofia", "Noah", "Mei", "Omar", "Elena", "Kofi", "Hana",
+            "Nimal", "Ishara", "Lucas", "Amara", "Ravi", "Chloe"};
+    private static final String[] LAST_NAMES = {"Sharma", "Perera", "Smith", "Garcia", "Kim", "Chen", "Haddad", "Rossi", "Mensah", "Sato",
+            "Fernando", "Silva", "Brown", "Nguyen"};
+
+    private static final String INSERT_COMPANY = "INSERT INTO companies (username, email, password_hash) VALUES (?, ?, ?)";
+    private static final String INSERT_PROFILE =
+            "INSERT INTO company_profiles (company_id, owner_name, company_name, business_type, tagline, description, " +
+            "start_time, end_time, off_days, phone, email, website, address) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_STAFF = "INSERT INTO staff (company_id, first_name, last_name, role) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_SERVICE =
+            "INSERT INTO services (service_name, num_customers, description, is_active, company_id, staff_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DAY = "INSERT INTO service_days (service_id, day_abbr) VALUES (?, ?)";
+    private static final String INSERT_SLOT = "INSERT INTO time_slots (service_day_id, start_time, end_time) VALUES (?, ?, ?)";
+    private static final String INSERT_BOOKING =
+            "INSERT INTO bookings (company_id, company_name, service_name, day, slot_time, customer_name, phone, email, notes, " +
+            "service_id, slot_id, appointment_date, booking_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OCCUPANCY = "INSERT INTO slot_occupancy (slot_id, appointment_date, booked) VALUES (?, ?, ?)";
+
+    /** How much to generate. */
+    private record Scale(int companies, int servicesPerCompany, int bookingsPerService, long seed) {}
+
+    /** A generated time slot, with what a booking row repeats from it. */
+    private record Slot(int slotId, int serviceId, String serviceName, int capacity, String day, String label) {}
+
+    private static final AtomicLong services = new AtomicLong();
+    private static final AtomicLong slots = new AtomicLong();
+    private static final AtomicLong bookings = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        // Tools run without a read timeout, whatever the app is configured with
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        if (args.length > 0 && args[0].equals("--drop")) {
+            long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+            try {
+                System.out.println("Companies removed: " + drop(prefix(seed)));
+            } finally {
+                DBHelper.shutdown();
+            }
+            return;
+        }
+
+        int companies = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int servicesPerCompany = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int bookingsPerService = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        Scale scale = new Scale(companies, servicesPerCompany, bookingsPerService, seed);
+
+        // One pooled connection per writer thread
+        if (System.getProperty("servicehub.pool.maxSize") == null) {
+            System.setProperty("servicehub.pool.maxSize", String.valueOf(Math.max(threads, 1)));
+        }
+
+        if (countCompanies(prefix(seed)) > 0) {
+            System.out.println("❌ Seed " + seed + " has already been generated; run with --drop " + seed + " first");
+            DBHelper.shutdown();
+            System.exit(1);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            services.set(0);
+            slots.set(0);
+            bookings.set(0);
+            String passwordHash = sha256(PASSWORD);
+            List<Future<?>> results = new ArrayList<>();
+            for (int n = 1; n <= companies; n++) {
+                int company = n;
+                results.add(pool.submit(() -> {
+                    generateCompany(scale, company, passwordHash);
+                    return null;
+                }));
+            }
+
+            // Waits in submission order; reports roughly every 10%
+            int step = Math.max(1, companies / 10);
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).get();
+                if ((i + 1) % step == 0 || i + 1 == companies) {
+                    System.out.printf("%d/%d companies, %d services, %d slots, %d bookings (%.1f s)%n", i + 1, companies,
+                            services.get(), slots.get(), bookings.get(), (System.nanoTime() - start) / 1e9);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("✅ Generated with seed %d in %.1f s (%.0f bookings/s)%n", seed, seconds, bookings.get() / seconds);
+            System.out.println("Log in as " + prefix(seed) + "1 / " + PASSWORD);
+        } finally {
+            pool.shutdownNow();
+            DBHelper.shutdown();
+        }
+    }
+
+    private static String prefix(long seed) {
+        return "gen" + seed + "_";
+    }
+
+    // ---------------- generation -------------------
+
+    private static void generateCompany(Scale scale, int n, String passwordHash) throws SQLException {
+        Random random = new Random(scale.seed() * 1_000_003L + n);
+        String username = prefix(scale.seed()) + n;
+        int type = random.nextInt(BUSINESS_TYPES.length);
+        String companyName = NAME_WORDS[random.nextInt(NAME_WORDS.length)] + " " + BUSINESS_TYPES[type] + " " + scale.seed() + "-" + n;
+
+        Connection conn = null;
+        try {
+            conn = DBHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            // 1. Company and profile
+            int companyId = insert(conn, INSERT_COMPANY, List.<Object[]>of(new Object[]{username, username + "@example.com", passwordHash})).get(0);
+            int open = 8 + random.nextInt(3);
+            int close = 17 + random.nextInt(4);
+            boolean openSaturday = random.nextBoolean();
+            insert(conn, INSERT_PROFILE, List.<Object[]>of(new Object[]{
+                    companyId, person(random), companyName, BUSINESS_TYPES[type], "Your local " + BUSINESS_TYPES[type].toLowerCase(),
+                    "Generated company " + n + " (seed " + scale.seed() + ")", time(open * 60), time(close * 60),
+                    openSaturday ? "Sun" : "Sat, Sun", phone(random), username + "@example.com", "https://example.com/" + username,
+                    (1 + random.nextInt(200)) + " Main Street"}));
+
+            // 2. Staff: distinct first names, so the company's unique key holds
+            int staffCount = 1 + random.nextInt(4);
+            int firstOffset = random.nextInt(FIRST_NAMES.length);
+            List<Object[]> staffRows = new ArrayList<>();
+            for (int s = 0; s < staffCount; s++) {
+                staffRows.add(new Object[]{companyId, FIRST_NAMES[(firstOffset + s) % FIRST_NAMES.length],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], ROLES[random.nextInt(ROLES.length)]});
+            }
+            List<Integer> staffIds = insert(conn, INSERT_STAFF, staffRows);
+
+            // 3. Services; about one in twenty is disabled
+            String[] kinds = SERVICE_KINDS[type];
+            List<Object[]> serviceRows = new ArrayList<>();
+            for (int s = 0; s < scale.servicesPerCompany(); s++) {
+                String kind = kinds[s % kinds.length] + (s < kinds.length ? "" : " " + (s / kinds.length + 1));
+                serviceRows.add(new Object[]{kind, 1 + random.nextInt(10), kind + " with our team",
+                        random.nextInt(20) == 0 ? 0 : 1, companyId, staffIds.get(random.nextInt(staffIds.size()))});
+            }
+            List<Integer> serviceIds = insert(conn, INSERT_SERVICE, serviceRows);
+            services.addAndGet(serviceIds.size());
+
+            // 4. Schedules: each service runs on some of the open days, in slots of its own length
+            int openDays = openSaturday ? 6 : 5;
+            List<Object[]> dayRows = new ArrayList<>();
+            List<Integer> dayService = new ArrayList<>();
+            for (int s = 0; s < serviceIds.size(); s++) {
+                int first = dayRows.size();
+                for (int d = 0; d < openDays; d++) {
+                    if (random.nextInt(10) < 7) dayRows.add(new Object[]{serviceIds.get(s), DAYS[d]});
+                }
+                if (dayRows.size() == first) dayRows.add(new Object[]{serviceIds.get(s), DAYS[random.nextInt(openDays)]});
+                while (dayService.size() < dayRows.size()) dayService.add(s);
+            }
+            List<Integer> dayIds = insert(conn, INSERT_DAY, dayRows);
+
+            int[] length = new int[serviceIds.size()];
+            for (int s = 0; s < length.length; s++) length[s] = new int[]{30, 45, 60}[random.nextInt(3)];
+            List<Object[]> slotRows = new ArrayList<>();
+            List<Integer> slotDay = new ArrayList<>();
+            for (int d = 0; d < dayIds.size(); d++) {
+                int minutes = length[dayService.get(d)];
+                for (int t = open * 60; t + minutes <= close * 60; t += minutes) {
+                    slotRows.add(new Object[]{dayIds.get(d), time(t), time(t + minutes)});
+                    slotDay.add(d);
+                }
+            }
+            List<Integer> slotIds = insert(conn, INSERT_SLOT, slotRows);
+            slots.addAndGet(slotIds.size());
+
+            List<List<Slot>> serviceSlots = new ArrayList<>();
+            for (int s = 0; s < serviceIds.size(); s++) serviceSlots.add(new ArrayList<>());
+            for (int k = 0; k < slotIds.size(); k++) {
+                int d = slotDay.get(k);
+                int s = dayService.get(d);
+                Object[] service = serviceRows.get(s);
+                serviceSlots.get(s).add(new Slot(slotIds.get(k), serviceIds.get(s), (String) service[0], (Integer) service[1],
+                        (String) dayRows.get(d)[1], slotRows.get(k)[1] + " - " + slotRows.get(k)[2]));
+            }
+
+            // 5. Bookings and their counters
+            Map<List<Object>, Integer> occupancy = new HashMap<>();
+            List<Object[]> bookingRows = new ArrayList<>();
+            for (List<Slot> offered : serviceSlots) {
+                for (int b = 0; b < scale.bookingsPerService(); b++) {
+                    Object[] row = booking(random, companyId, companyName, offered, occupancy);
+                    if (row != null) bookingRows.add(row);
+                    // Flush as we go so millions of bookings are never held at once
+                    if (bookingRows.size() == BATCH) {
+                        insertBatch(conn, INSERT_BOOKING, bookingRows);
+                        bookings.addAndGet(bookingRows.size());
+                        bookingRows.clear();
+                    }
+                }
+            }
+            insertBatch(conn, INSERT_BOOKING, bookingRows);
+            bookings.addAndGet(bookingRows.size());
+
+            List<Object[]> occupancyRows = new ArrayList<>();
+            occupancy.forEach((key, booked) -> occupancyRows.add(new Object[]{key.get(0), key.get(1), booked}));
+            insertBatch(conn, INSERT_OCCUPANCY, occupancyRows);
+
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
+        } finally {
+            if (conn != null) conn.setAutoCommit(true);
+            DBHelper.close(conn, null, null);
+        }
+    }
+
+    /** One booking of a random slot on one of its dates that still has room, or null if none was found. */
+    private static Object[] booking(Random random, int companyId, String companyName, List<Slot> offered,
+                                    Map<List<Object>, Integer> occupancy) {
+        LocalDate today = LocalDate.now();
+        int span = HISTORY_DAYS + AppointmentDAO.bookingWindowDays();
+        for (int attempt = 0; attempt < BOOKING_TRIES; attempt++) {
+            Slot slot = offered.get(random.nextInt(offered.size()));
+            LocalDate date = today.minusDays(HISTORY_DAYS).plusDays(random.nextInt(span - 6));
+            while (!Booking.dayAbbr(date).equalsIgnoreCase(slot.day())) date = date.plusDays(1);
+
+            List<Object> key = List.of(slot.slotId(), Date.valueOf(date));
+            int booked = occupancy.getOrDefault(key, 0);
+            if (booked >= slot.capacity()) continue;
+            occupancy.put(key, booked + 1);
+
+            // Booked up to three weeks ahead; upcoming ones were booked in the last three weeks
+            LocalDate bookedOn = date.minusDays(random.nextInt(22));
+            if (!bookedOn.isBefore(today)) bookedOn = today.minusDays(1 + random.nextInt(21));
+            LocalDateTime bookedAt = bookedOn.atTime(7 + random.nextInt(15), random.nextInt(60));
+            String customer = person(random);
+            return new Object[]{companyId, companyName, slot.serviceName(), Booking.dayAbbr(date), slot.label(), customer,
+                    phone(random), customer.toLowerCase().replace(' ', '.') + random.nextInt(1000) + "@example.com",
+                    random.nextInt(5) == 0 ? "First visit" : "", slot.serviceId(), slot.slotId(), Date.valueOf(date),
+                    Timestamp.valueOf(bookedAt)};
+        }
+        return null;
+    }
+
+    private static String person(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String phone(Random random) {
+        return "07" + (10_000_000 + random.nextInt(90_000_000));
+    }
+
+    private static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private static String sha256(String text) throws Exception {
+        // Same hash CompanyAuthDAO stores, so the generated companies can log in
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    // ---------------- JDBC helpers -------------------
+
+    /** Batched insert returning the generated keys in row order. */
+    private static List<Integer> insert(Connection conn, String sql, List<Object[]> rows) throws SQLException {
+        List<Integer> keys = new ArrayList<>(rows.size());
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows.size(); i++) {
+                Fixtures.bind(ps, rows.get(i));
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0 || i == rows.size() - 1) {
+                    ps.executeBatch();
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        while (rs.next()) keys.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        if (keys.size() != rows.size()) throw new SQLException("Expected " + rows.size() + " generated keys, got " + keys.size());
+        return keys;
+    }
+
+    private static void insertBatch(Connection conn, String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < rows.size(); i++) {
+                Fixtures.bind(ps, rows.get(i));
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0 || i == rows.size() - 1) ps.executeBatch();
+            }
+        }
+    }
+
+    // ---------------- drop -------------------
+
+    private static int countCompanies(String prefix) throws SQLException {
+        return companyIds(prefix).size();
+    }
+
+    private static List<Integer> companyIds(String prefix) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DBHelper.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT company_id FROM companies WHERE username LIKE ?")) {
+            ps.setString(1, prefix.replace("_", "\\_") + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    // One company per transaction, so a large drop does not build one huge undo log
+    private static int drop(String prefix) throws SQLException {
+        List<Integer> ids = companyIds(prefix);
+        try (Connection conn = DBHelper.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int companyId : ids) {
+                try {
+                    Fixtures.deleteCompany(conn, companyId);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            conn.setAutoCommit(true);
+        }
+        return ids.size();
+    }
+}
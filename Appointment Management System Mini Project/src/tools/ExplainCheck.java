@@ -0,0 +1,280 @@
+package tools;
+
+import company.BookingDAO;
+import company.BookingQuery;
+import company.CompanyAuthDAO;
+import company.ServiceDAO;
+import customer.AppointmentDAO;
+import db.DBHelper;
+import db.SlotOccupancy;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plan regression check for the DAO queries.
+ *
+ * Runs EXPLAIN on the SQL the DAOs run: their public SQL constants, and the statements
+ * BookingDAO and ServiceDAO build (pageSql, streamSql, insertTimeSlotsSql), bound with
+ * values sampled from the database. Fails if any query reads a table with a full scan
+ * ("type = ALL"), unless that table is an allowed scan for the query. On a nearly empty
+ * database the optimizer scans small tables even when an index fits, so run it against
+ * realistic volumes (tools.DataGenerator).
+ *
+ * Every DAO statement that reads or filters rows is checked. The single-row INSERT ... VALUES
+ * statements in NOT_CHECKED are left out on purpose: they read nothing, so there is no plan
+ * to regress.
+ *
+ * Usage: java tools.ExplainCheck      (exit status 1 on failure)
+ */
+public class ExplainCheck {
+
+    private static final int PAGE_SIZE = 100;
+
+    // Deliberately not EXPLAINed: one row from bound VALUES (ON DUPLICATE KEY goes through the key)
+    private static final List<String> NOT_CHECKED = List.of(
+            "CompanyAuthDAO.signup (INSERT INTO companies)",
+            "CompanyProfileDAO.saveCompanyProfile (INSERT INTO company_profiles; there is no profile UPDATE)",
+            "ServiceDAO.saveService / saveServices (INSERT INTO services)",
+            "ServiceDAO.insertServiceDays (INSERT INTO service_days)",
+            "ServiceDAO.findOrCreateStaff (INSERT INTO staff ... ON DUPLICATE KEY UPDATE)",
+            "ServiceDAO.saveImportCheckpoint (INSERT INTO service_import_checkpoints ... ON DUPLICATE KEY UPDATE)",
+            "AppointmentDAO.insertBooking (INSERT INTO bookings)",
+            "SlotOccupancy.reserve / add (INSERT INTO slot_occupancy ... ON DUPLICATE KEY UPDATE)");
+
+    /** A DAO query, the values to bind in order, and the tables it may read in full. */
+    private record Query(String name, String sql, List<Object> params, Set<String> scansAllowed) {}
+
+    /** Collects the queries, binding sample values by key. */
+    private static final class QueryList {
+        private final Map<String, Object> sample;
+        private final List<Query> queries = new ArrayList<>();
+
+        QueryList(Map<String, Object> sample) {
+            this.sample = sample;
+        }
+
+        void q(String name, String sql, String... keys) {
+            queries.add(new Query(name, sql, values(keys), Set.of()));
+        }
+
+        void scan(String name, String sql, String table, String... keys) {
+            queries.add(new Query(name, sql, values(keys), Set.of(table)));
+        }
+
+        void bound(String name, BookingDAO.BoundSql statement) {
+            queries.add(new Query(name, statement.sql(), statement.params(), Set.of()));
+        }
+
+        private List<Object> values(String... keys) {
+            List<Object> values = new ArrayList<>();
+            for (String key : keys) {
+                if (!sample.containsKey(key)) throw new IllegalArgumentException("No sample value for " + key);
+                values.add(sample.get(key));
+            }
+            return values;
+        }
+    }
+
+    private static List<Query> queries(Map<String, Object> sample) {
+        QueryList list = new QueryList(sample);
+
+        // ---- customer.AppointmentDAO ----
+        list.scan("AppointmentDAO.getCompanies", AppointmentDAO.COMPANIES_SQL, "company_profiles");
+        list.q("AppointmentDAO.getServicesByCompany", AppointmentDAO.SERVICES_BY_COMPANY_SQL, "company_name");
+        list.q("AppointmentDAO.getServiceDetails", AppointmentDAO.SERVICE_DETAILS_SQL, "service_id");
+        list.q("AppointmentDAO.getCompanyDetails", AppointmentDAO.COMPANY_DETAILS_SQL, "company_name");
+        list.q("AppointmentDAO.getSlots", AppointmentDAO.SLOTS_SQL, "service_id", "day");
+        list.q("AppointmentDAO.getSlotsByDate", AppointmentDAO.SLOTS_BY_DATE_SQL, "window_from", "window_to", "service_id");
+        list.q("AppointmentDAO.getCompanyId", AppointmentDAO.COMPANY_ID_SQL, "company_name");
+        list.q("AppointmentDAO.findSlot (by id)", AppointmentDAO.FIND_SLOT_BY_ID_SQL, "slot_id");
+        list.q("AppointmentDAO.findSlot (by name)", AppointmentDAO.FIND_SLOT_BY_NAME_SQL,
+                "company_name", "service_name", "day", "start_time", "end_time");
+        list.q("AppointmentDAO.isSlotAvailable", AppointmentDAO.SLOT_AVAILABLE_SQL,
+                "appointment_date", "service_id", "day", "start_time", "end_time");
+
+        // ---- db.SlotOccupancy ----
+        list.q("SlotOccupancy.reserve", SlotOccupancy.RESERVE_SQL, "slot_id", "appointment_date", "capacity");
+        list.q("SlotOccupancy.release", SlotOccupancy.RELEASE_SQL, "slot_id", "appointment_date");
+        list.q("SlotOccupancy.rebuild (ensure rows)", SlotOccupancy.ENSURE_SERVICE_ROWS_SQL, "service_id");
+        list.q("SlotOccupancy.rebuild", SlotOccupancy.REBUILD_SERVICE_SQL, "service_id");
+        list.q("SlotOccupancy.overCapacity", SlotOccupancy.OVER_CAPACITY_SQL, "service_id", "appointment_date");
+
+        // ---- company.BookingDAO ----
+        BookingQuery all = BookingQuery.forCompany(((Number) sample.get("company_id")).intValue());
+        BookingDAO.PageCursor cursor = new BookingDAO.PageCursor(sample.get("cursor_date"), Integer.MAX_VALUE);
+        list.q("BookingDAO.cancelBooking", BookingDAO.CANCEL_FIND_SQL, "booking_id", "company_id");
+        list.q("BookingDAO.cancelBooking (delete)", BookingDAO.CANCEL_DELETE_SQL, "booking_id");
+        list.q("BookingDAO.getBookingsByCompanyId", BookingDAO.SELECT_BOOKINGS, "company_id");
+        list.bound("BookingDAO.getBookingsPage (first page)", BookingDAO.pageSql(all, null, PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (next page, date range)",
+                BookingDAO.pageSql(all.withDateRange(LocalDate.of(2000, 1, 1), LocalDate.of(2100, 1, 1)), cursor, PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (next page, undated bookings)",
+                BookingDAO.pageSql(all, new BookingDAO.PageCursor(null, Integer.MAX_VALUE), PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (service filter)",
+                BookingDAO.pageSql(all.withService(((Number) sample.get("service_id")).intValue()), null, PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (day filter)", BookingDAO.pageSql(all.withDay("Mon"), null, PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (customer sort)",
+                BookingDAO.pageSql(all.withSort(BookingQuery.Sort.CUSTOMER_A_Z), null, PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (search)", BookingDAO.pageSql(all.withSearch("sample"), null, PAGE_SIZE));
+        list.bound("BookingDAO.getBookingsPage (short search word, LIKE)", BookingDAO.pageSql(all.withSearch("ab"), null, PAGE_SIZE));
+        list.bound("BookingDAO.streamBookings", BookingDAO.streamSql(all.withDateRange(LocalDate.of(2000, 1, 1), null)));
+
+        // ---- company.CompanyAuthDAO ----
+        list.q("CompanyAuthDAO.login", CompanyAuthDAO.LOGIN_SQL, "username");
+        list.q("CompanyAuthDAO.hasProfile", CompanyAuthDAO.HAS_PROFILE_SQL, "company_id");
+
+        // ---- company.ServiceDAO ----
+        list.q("ServiceDAO.findOrCreateStaff", ServiceDAO.FIND_STAFF_SQL, "company_id", "first_name", "last_name", "role");
+        list.q("ServiceDAO.getActiveServicesByCompanyId", ServiceDAO.ACTIVE_SERVICES_SQL, "company_id");
+        list.q("ServiceDAO.getServiceById", ServiceDAO.SERVICE_BY_ID_SQL, "service_id", "company_id");
+        list.q("ServiceDAO.getServiceNames", ServiceDAO.SERVICE_NAMES_SQL, "company_id");
+        list.q("ServiceDAO.fetchTimeSlotsForCompany", ServiceDAO.COMPANY_TIME_SLOTS_SQL, "company_id");
+        list.q("ServiceDAO.fetchTimeSlotsForService", ServiceDAO.SERVICE_TIME_SLOTS_SQL, "service_id");
+        list.q("ServiceDAO.updateService (read schedule)", ServiceDAO.SCHEDULE_SQL, "service_id");
+        list.q("ServiceDAO.updateService (service row)", ServiceDAO.UPDATE_SERVICE_SQL,
+                "service_name", "capacity", "description", "staff_id", "service_id", "company_id");
+        list.q("ServiceDAO.updateService (delete slot)", ServiceDAO.DELETE_TIME_SLOT_SQL, "slot_id");
+        list.q("ServiceDAO.updateService (delete day)", ServiceDAO.DELETE_SERVICE_DAY_SQL, "service_day_id");
+        list.q("ServiceDAO.updateService (re-link bookings)", ServiceDAO.RELINK_BOOKINGS_SQL, "slot_id", "service_id", "slot_id");
+        // Two slots, so the UNION ALL arm's day lookup is in the plan too
+        list.q("ServiceDAO.insertTimeSlots (day lookup)", ServiceDAO.insertTimeSlotsSql(2),
+                "seq", "service_id", "day", "start_time", "end_time",
+                "seq", "service_id", "day", "start_time", "end_time");
+        list.q("ServiceDAO.getImportCheckpoint", ServiceDAO.IMPORT_CHECKPOINT_SQL, "company_id", "sha256");
+        list.q("ServiceDAO.clearImportCheckpoint", ServiceDAO.CLEAR_IMPORT_CHECKPOINT_SQL, "company_id", "sha256");
+        list.q("ServiceDAO.disableService", ServiceDAO.DISABLE_SERVICE_SQL, "service_id", "company_id");
+        list.q("ServiceDAO.reactivateService", ServiceDAO.REACTIVATE_SERVICE_SQL, "service_id", "company_id");
+        list.q("ServiceDAO.deleteService (slots)", ServiceDAO.DELETE_SERVICE_SLOTS_SQL, "service_id");
+        list.q("ServiceDAO.deleteService (days)", ServiceDAO.DELETE_SERVICE_DAYS_SQL, "service_id");
+        list.q("ServiceDAO.deleteService (service)", ServiceDAO.DELETE_SERVICE_SQL, "service_id", "company_id");
+
+        return list.queries;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Tools run without a read timeout, whatever the app is configured with
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        int failures = 0;
+        List<Query> queries;
+
+        try (Connection conn = DBHelper.getConnection()) {
+            queries = queries(sampleValues(conn));
+
+            for (Query query : queries) {
+                List<String> problems = new ArrayList<>();
+                List<String> notes = new ArrayList<>();
+
+                try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + query.sql())) {
+                    for (int i = 0; i < query.params().size(); i++) {
+                        ps.setObject(i + 1, query.params().get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            String table = column(rs, "table");
+                            String type = column(rs, "type");
+                            String selectType = column(rs, "select_type");
+                            if (table == null || !"ALL".equalsIgnoreCase(type)) continue;
+                            // <derived2>, <union1,2>, ... are the statement's own temporary results, and the
+                            // INSERT row of INSERT ... SELECT is the target table, not a read
+                            if (table.startsWith("<") || "INSERT".equalsIgnoreCase(selectType)) continue;
+
+                            String possibleKeys = column(rs, "possible_keys");
+                            String keys = possibleKeys == null || possibleKeys.isBlank() ? "no usable index" : "possible keys " + possibleKeys;
+                            if (query.scansAllowed().contains(table)) {
+                                notes.add("full scan of " + table + " (allowed)");
+                            } else {
+                                problems.add("full scan of " + table + " (" + keys + ")");
+                            }
+                        }
+                    }
+                } catch (SQLException e) {
+                    problems.add("EXPLAIN failed: " + e.getMessage());
+                }
+
+                if (!problems.isEmpty()) {
+                    failures++;
+                    System.out.println("❌ " + query.name() + ": " + String.join("; ", problems));
+                } else if (!notes.isEmpty()) {
+                    System.out.println("✅ " + query.name() + ": " + String.join("; ", notes));
+                } else {
+                    System.out.println("✅ " + query.name());
+                }
+            }
+        } finally {
+            DBHelper.shutdown();
+        }
+
+        System.out.println(queries.size() + " queries checked, " + failures + " failed.");
+        System.out.println("Not checked (nothing to plan): " + String.join(", ", NOT_CHECKED));
+        if (failures > 0) System.exit(1);
+    }
+
+    /** Real values to bind, so EXPLAIN doesn't short-circuit on "no matching row". */
+    private static Map<String, Object> sampleValues(Connection conn) throws SQLException {
+        Map<String, Object> sample = new HashMap<>();
+        // Fallbacks for an empty database; plans may then be trivial
+        sample.put("company_id", 1);
+        sample.put("company_name", "sample");
+        sample.put("service_id", 1);
+        sample.put("service_name", "sample");
+        sample.put("day", "mon");
+        sample.put("slot_id", 1);
+        sample.put("booking_id", 1);
+        sample.put("capacity", 1);
+        sample.put("appointment_date", Date.valueOf(LocalDate.now()));
+        sample.put("window_from", Date.valueOf(LocalDate.now()));
+        sample.put("window_to", Date.valueOf(LocalDate.now().plusDays(28)));
+        sample.put("start_time", "09:00");
+        sample.put("end_time", "10:00");
+        sample.put("first_name", "sample");
+        sample.put("last_name", "sample");
+        sample.put("role", "sample");
+        sample.put("username", "sample");
+        sample.put("cursor_date", Date.valueOf(LocalDate.now()));
+        sample.put("sha256", "0".repeat(64));
+        sample.put("seq", 0);
+        sample.put("description", "sample");
+        sample.put("staff_id", 1);
+        sample.put("service_day_id", 1);
+
+        String sql = "SELECT cp.company_id, cp.company_name, s.service_id, s.service_name, s.description, sd.day_abbr AS day, "
+                   + "sd.service_day_id, ts.slot_id, ts.start_time, ts.end_time, st.staff_id, st.first_name, st.last_name, st.role "
+                   + "FROM services s JOIN company_profiles cp ON s.company_id = cp.company_id "
+                   + "JOIN staff st ON s.staff_id = st.staff_id "
+                   + "JOIN service_days sd ON sd.service_id = s.service_id "
+                   + "JOIN time_slots ts ON ts.service_day_id = sd.service_day_id LIMIT 1";
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            if (rs.next()) {
+                ResultSetMetaData md = rs.getMetaData();
+                for (int i = 1; i <= md.getColumnCount(); i++) sample.put(md.getColumnLabel(i), rs.getObject(i));
+            } else {
+                System.out.println("⚠ No services in the database; plans below may not be representative.");
+            }
+        }
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT username FROM companies LIMIT 1")) {
+            if (rs.next()) sample.put("username", rs.getString(1));
+        }
+        sample.put("slot_time", sample.get("start_time") + " - " + sample.get("end_time"));
+        return sample;
+    }
+
+    private static String column(ResultSet rs, String name) {
+        try {
+            return rs.getString(name);
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
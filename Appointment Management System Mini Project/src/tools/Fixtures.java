@@ -0,0 +1,67 @@
+package tools;
+
+import db.DBHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Throwaway test data for the tools: creates a company with its profile, deletes a
+ * company with everything under it, and small JDBC helpers for fixture SQL.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /** Inserts a company and its profile, both named tag; returns the company_id. */
+    static int createCompany(Connection conn, String tag, String ownerName) throws SQLException {
+        int companyId = insert(conn, "INSERT INTO companies (username, email, password_hash) VALUES (?, ?, 'x')",
+                tag, tag + "@example.com");
+        exec(conn, "INSERT INTO company_profiles (company_id, owner_name, company_name) VALUES (?, ?, ?)",
+                companyId, ownerName, tag);
+        return companyId;
+    }
+
+    /** Deletes a company with its bookings, services, staff and profile, on its own connection. */
+    static void dropCompany(int companyId) throws SQLException {
+        try (Connection conn = DBHelper.getConnection()) {
+            deleteCompany(conn, companyId);
+        }
+    }
+
+    /** As dropCompany, on the caller's connection (and in its transaction, if any). */
+    static void deleteCompany(Connection conn, int companyId) throws SQLException {
+        exec(conn, "DELETE FROM bookings WHERE company_id = ?", companyId);
+        exec(conn, "DELETE FROM services WHERE company_id = ?", companyId); // days, slots and counters cascade
+        exec(conn, "DELETE FROM staff WHERE company_id = ?", companyId);
+        exec(conn, "DELETE FROM company_profiles WHERE company_id = ?", companyId);
+        exec(conn, "DELETE FROM companies WHERE company_id = ?", companyId);
+    }
+
+    /** Runs a single-row INSERT and returns its generated key. */
+    static int insert(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bind(ps, params);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    static void exec(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, params);
+            ps.executeUpdate();
+        }
+    }
+
+    static void bind(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+    }
+}
@@ -0,0 +1,106 @@
+package tools;
+
+import db.DBHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies pending sql/migrations/V###__name.sql files in version order and
+ * records each one in schema_version. Uses the same db.properties as the app.
+ *
+ * Usage: java tools.MigrationRunner [migrations dir, default sql/migrations]
+ */
+public class MigrationRunner {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    public static void main(String[] args) throws Exception {
+        // A migration may run longer than any read timeout configured for the app
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        Path dir = Paths.get(args.length > 0 ? args[0] : "sql/migrations");
+
+        try (Connection conn = DBHelper.getConnection()) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                        + "version INT PRIMARY KEY, "
+                        + "description VARCHAR(200) NOT NULL, "
+                        + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+
+            Set<Integer> applied = new HashSet<>();
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT version FROM schema_version")) {
+                while (rs.next()) applied.add(rs.getInt(1));
+            }
+
+            int count = 0;
+            for (Path file : migrationFiles(dir)) {
+                Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                m.matches();
+                int version = Integer.parseInt(m.group(1));
+                if (applied.contains(version)) continue;
+
+                System.out.println("Applying " + file.getFileName() + " ...");
+                apply(conn, file);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    ps.setInt(1, version);
+                    ps.setString(2, m.group(2).replace('_', ' '));
+                    ps.executeUpdate();
+                }
+                count++;
+            }
+            System.out.println(count == 0 ? "Schema is up to date." : "Applied " + count + " migration(s).");
+        } finally {
+            DBHelper.shutdown();
+        }
+    }
+
+    private static List<Path> migrationFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(p -> FILE_NAME.matcher(p.getFileName().toString()).matches())
+                    .sorted((a, b) -> Integer.compare(version(a), version(b)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int version(Path p) {
+        Matcher m = FILE_NAME.matcher(p.getFileName().toString());
+        m.matches();
+        return Integer.parseInt(m.group(1));
+    }
+
+    /** Runs each ';'-terminated statement of the file; "--" comment lines are dropped. */
+    private static void apply(Connection conn, Path file) throws IOException, SQLException {
+        String sql = Files.readAllLines(file).stream()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+
+        try (Statement st = conn.createStatement()) {
+            for (String statement : sql.split(";")) {
+                if (statement.isBlank()) continue;
+                try {
+                    st.execute(statement);
+                } catch (SQLException e) {
+                    throw new SQLException("Migration " + file.getFileName() + " failed at:\n" + statement.trim(), e);
+                }
+            }
+        }
+    }
+}
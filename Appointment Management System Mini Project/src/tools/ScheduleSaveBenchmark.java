@@ -0,0 +1,163 @@
+package tools;
+
+import company.ServiceDAO;
+import company.ServiceSessionManager.ServiceConfig;
+import company.ServiceSessionManager.TimeSlot;
+import db.DBHelper;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Round trips and time per ServiceDAO.saveService / updateService, for schedules of
+ * different sizes.
+ *
+ * Round trips are read from MySQL's session 'Questions' counter, so the pool is limited
+ * to one connection and every DAO call runs on the session being measured. They include
+ * autocommit changes and COMMIT, not just the INSERTs. On other databases only the
+ * times are shown.
+ *
+ * Creates a throwaway company, saves and edits services under it, then removes it.
+ *
+ * Usage: java tools.ScheduleSaveBenchmark [servicesPerShape=20]
+ */
+public class ScheduleSaveBenchmark {
+
+    private static final String[] DAYS = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    // days x slots per day
+    private static final int[][] SHAPES = {{1, 1}, {5, 4}, {7, 12}};
+
+    public static void main(String[] args) throws Exception {
+        // Lock waits are part of the workload; don't let a read timeout cut them off
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        int perShape = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        // One pooled connection: the session counter then sees every statement the DAO sends
+        if (System.getProperty("servicehub.pool.maxSize") == null) {
+            System.setProperty("servicehub.pool.maxSize", "1");
+            System.setProperty("servicehub.pool.minIdle", "1");
+        }
+
+        String tag = "bench_" + System.currentTimeMillis();
+        int companyId = createFixture(tag);
+
+        try {
+            boolean counting = isMySql();
+            long overhead = counting ? measureOverhead() : 0;
+
+            System.out.printf("%-14s %-22s %12s %10s%n", "Schedule", "Operation", "Round trips", "Avg ms");
+            for (int[] shape : SHAPES) {
+                int days = shape[0];
+                int slots = shape[1];
+                String label = days + "d x " + slots + " slots";
+
+                Map<String, List<TimeSlot>> schedule = schedule(days, slots);
+                Map<String, List<TimeSlot>> edited = schedule(days, slots + 1);
+                List<Integer> ids = new ArrayList<>();
+
+                Result save = measure(perShape, counting, overhead, i ->
+                    ids.add(ServiceDAO.saveService(config(0, tag + "_" + label + "_" + i, "v1", schedule), companyId)));
+                print(label, "saveService", save);
+
+                Result describe = measure(perShape, counting, overhead, i ->
+                    ServiceDAO.updateService(config(ids.get(i), tag + "_" + label + "_" + i, "v2", schedule), ids.get(i), companyId));
+                print(label, "update (description)", describe);
+
+                Result addSlot = measure(perShape, counting, overhead, i ->
+                    ServiceDAO.updateService(config(ids.get(i), tag + "_" + label + "_" + i, "v2", edited), ids.get(i), companyId));
+                print(label, "update (+1 slot/day)", addSlot);
+            }
+        } finally {
+            Fixtures.dropCompany(companyId);
+            DBHelper.shutdown();
+        }
+    }
+
+    /** A DAO call under test; i counts from 0 within one measurement. */
+    @FunctionalInterface
+    private interface Op {
+        void run(int i) throws SQLException;
+    }
+
+    private record Result(double roundTrips, double avgMillis) {}
+
+    private static Result measure(int runs, boolean counting, long overhead, Op op) throws SQLException {
+        long totalQuestions = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < runs; i++) {
+            long before = counting ? questions() : 0;
+            long start = System.nanoTime();
+            op.run(i);
+            totalNanos += System.nanoTime() - start;
+            if (counting) totalQuestions += questions() - before - overhead;
+        }
+        return new Result(counting ? (double) totalQuestions / runs : -1, totalNanos / 1_000_000.0 / runs);
+    }
+
+    private static void print(String label, String operation, Result r) {
+        String trips = r.roundTrips() < 0 ? "n/a" : String.format("%.1f", r.roundTrips());
+        System.out.printf("%-14s %-22s %12s %10.2f%n", label, operation, trips, r.avgMillis());
+    }
+
+    // ---------------- counting -------------------
+
+    private static boolean isMySql() throws SQLException {
+        try (Connection conn = DBHelper.getConnection()) {
+            return conn.getMetaData().getURL().startsWith("jdbc:mysql:");
+        }
+    }
+
+    /** Statements this session has sent, including this SHOW itself. */
+    private static long questions() throws SQLException {
+        try (Connection conn = DBHelper.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SHOW SESSION STATUS LIKE 'Questions'")) {
+            rs.next();
+            return rs.getLong(2);
+        }
+    }
+
+    // What two back-to-back reads of the counter add on their own
+    private static long measureOverhead() throws SQLException {
+        long first = questions();
+        return questions() - first;
+    }
+
+    // ---------------- data -------------------
+
+    private static Map<String, List<TimeSlot>> schedule(int days, int slotsPerDay) {
+        Map<String, List<TimeSlot>> schedule = new LinkedHashMap<>();
+        for (int d = 0; d < days; d++) {
+            List<TimeSlot> slots = new ArrayList<>();
+            for (int s = 0; s < slotsPerDay; s++) {
+                int minutes = 8 * 60 + s * 30;
+                slots.add(new TimeSlot(time(minutes), time(minutes + 30)));
+            }
+            schedule.put(DAYS[d], slots);
+        }
+        return schedule;
+    }
+
+    private static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private static ServiceConfig config(int serviceId, String name, String description, Map<String, List<TimeSlot>> schedule) {
+        return new ServiceConfig(serviceId, name, 3, "Bench", "Mark", "Tester", description, true, schedule);
+    }
+
+    // ---------------- fixture -------------------
+
+    private static int createFixture(String tag) throws SQLException {
+        try (Connection conn = DBHelper.getConnection()) {
+            return Fixtures.createCompany(conn, tag, "Bench");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package tools;
+
+import db.DBHelper;
+import db.SlotOccupancy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds the slot_occupancy counters from bookings, one service per transaction, so
+ * bookers are only held up on the service being checked. Safe to run while the app is
+ * in use: each service's counters are locked while they are recomputed.
+ *
+ * Usage: java tools.SlotOccupancyReconciler [--dry-run]
+ * With --dry-run the counters are checked and the changes rolled back.
+ * Exits with status 1 if any counter was wrong.
+ */
+public class SlotOccupancyReconciler {
+
+    public static void main(String[] args) throws Exception {
+        // Rebuilding locks and rewrites whole counters; don't let a read timeout cut it off
+        System.setProperty("servicehub.mysql.socketTimeout", "0");
+        boolean dryRun = args.length > 0 && args[0].equals("--dry-run");
+
+        int services = 0;
+        int wrong = 0;
+        try (Connection conn = DBHelper.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int serviceId : serviceIds(conn)) {
+                try {
+                    int fixed = SlotOccupancy.rebuild(conn, serviceId);
+                    if (dryRun) conn.rollback(); else conn.commit();
+                    if (fixed > 0) System.out.println("Service " + serviceId + ": " + fixed + " counter(s) " + (dryRun ? "wrong" : "fixed"));
+                    wrong += fixed;
+                    services++;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            conn.setAutoCommit(true);
+        } finally {
+            DBHelper.shutdown();
+        }
+
+        System.out.println("Services checked: " + services);
+        System.out.println(wrong == 0 ? "✅ All counters match bookings"
+                : (dryRun ? "❌ Wrong counters: " : "⚠ Counters fixed: ") + wrong);
+        if (wrong > 0) System.exit(1);
+    }
+
+    private static List<Integer> serviceIds(Connection conn) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT service_id FROM services ORDER BY service_id")) {
+            while (rs.next()) ids.add(rs.getInt(1));
+        }
+        conn.commit(); // don't hold the snapshot (or locks) across the services
+        return ids;
+    }
+}